@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * A cancellable event dispatched by benchmarks.
+ */
+public class BenchmarkEvent extends Event implements Cancellable
+{
+    private int handled = 0;
+    
+    /**
+     * Marks the event as handled by one more listener.
+     */
+    public void handle() { handled++; }
+    
+    /**
+     * Gets how many listeners have handled this event.
+     *
+     * @return the number of listeners
+     */
+    public int handled() { return handled; }
+    
+    // - - - - - - Cancellable Boilerplate - - - - - -
+    
+    private boolean cancelled = false;
+    
+    @Override
+    public boolean isCancelled() { return cancelled; }
+    
+    @Override
+    public void setCancelled(boolean cancelled) { this.cancelled = cancelled; }
+    
+    // - - - - - - HandlerList Boilerplate - - - - - -
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public static HandlerList getHandlerList() { return HANDLERS; }
+    
+    @Override
+    public HandlerList getHandlers() { return HANDLERS; }
+}
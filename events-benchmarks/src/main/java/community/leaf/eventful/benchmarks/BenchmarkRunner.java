@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs benchmarks with the GC profiler enabled, reporting allocation rates
+ * and bytes allocated per operation alongside the usual scores.
+ *
+ * <p>Accepts all of JMH's command line options, for example:
+ * {@code java -jar benchmarks.jar DispatchBenchmark -p listeners=10}</p>
+ */
+public final class BenchmarkRunner
+{
+    private BenchmarkRunner() { throw new UnsupportedOperationException(); }
+    
+    public static void main(String[] args) throws IOException, CommandLineOptionException, RunnerException
+    {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        
+        boolean informational =
+            cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats();
+        
+        // Let JMH handle help and listing options on its own
+        if (informational) { Main.main(args); return; }
+        
+        new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+    }
+}
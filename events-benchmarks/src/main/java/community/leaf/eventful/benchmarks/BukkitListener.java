@@ -0,0 +1,23 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+/**
+ * A listener with a single Bukkit {@link EventHandler} method, used as a baseline.
+ */
+public class BukkitListener implements Listener
+{
+    @EventHandler
+    public void onBenchmarkEvent(BenchmarkEvent event)
+    {
+        event.handle();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling many events of the same type one by one versus all at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkDispatchBenchmark
+{
+    @Param({"1", "10"})
+    public int listeners;
+    
+    @Param({"100", "1000"})
+    public int events;
+    
+    private final List<BenchmarkEvent> batch = new ArrayList<>();
+    
+    private Events dispatcher;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        dispatcher = server.events("EventfulBenchmarks");
+        
+        for (int i = 0; i < listeners; i++)
+        {
+            dispatcher.on(BenchmarkEvent.class, BenchmarkEvent::handle);
+        }
+        
+        for (int i = 0; i < events; i++) { batch.add(new BenchmarkEvent()); }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        TestServer.get().reset();
+    }
+    
+    /**
+     * Calls each event through {@link Events#call(org.bukkit.event.Event)}.
+     *
+     * @return the number of cancelled events
+     */
+    @Benchmark
+    public int callEach()
+    {
+        int cancelled = 0;
+        
+        for (BenchmarkEvent event : batch)
+        {
+            if (dispatcher.call(event).isCancelled()) { cancelled++; }
+        }
+        
+        return cancelled;
+    }
+    
+    /**
+     * Calls every event through {@link Events#callAll(java.util.Collection)}.
+     *
+     * @return the number of cancelled events
+     */
+    @Benchmark
+    public int callAll()
+    {
+        return dispatcher.callAll(batch);
+    }
+}
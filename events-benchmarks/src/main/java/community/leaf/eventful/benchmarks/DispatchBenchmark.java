@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.EventDispatcher;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling an event as the number of registered consumers grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark
+{
+    @Param({"0", "1", "10", "100"})
+    public int listeners;
+    
+    @Param({"false", "true"})
+    public boolean multiplexed;
+    
+    private Events events;
+    private EventDispatcher dispatcher;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+        dispatcher = Events.dispatcher();
+        
+        if (multiplexed) { events.multiplexing().enable(); }
+        
+        for (int i = 0; i < listeners; i++)
+        {
+            events.on(BenchmarkEvent.class, BenchmarkEvent::handle);
+        }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        events.multiplexing().disable();
+        TestServer.get().reset();
+    }
+    
+    /**
+     * Calls through {@link Events#call(org.bukkit.event.Event)}.
+     *
+     * @return the called event
+     */
+    @Benchmark
+    public BenchmarkEvent call()
+    {
+        return events.call(new BenchmarkEvent());
+    }
+    
+    /**
+     * Calls through the static {@link Events#dispatcher()}.
+     *
+     * @return the called event
+     */
+    @Benchmark
+    public BenchmarkEvent dispatch()
+    {
+        return dispatcher.call(new BenchmarkEvent());
+    }
+    
+    /**
+     * Calls through {@link Events#callIfListened(Class, java.util.function.Supplier)},
+     * which skips creating the event entirely without listeners.
+     *
+     * @return the called event (if any)
+     */
+    @Benchmark
+    public Optional<BenchmarkEvent> callIfListened()
+    {
+        return events.callIfListened(BenchmarkEvent.class, BenchmarkEvent::new);
+    }
+    
+    /**
+     * Calls a subtype sharing the registered type's handler list, which exercises
+     * the event type check for runtime classes other than the registered one.
+     *
+     * @return the called event
+     */
+    @Benchmark
+    public BenchmarkEvent callSubtype()
+    {
+        return events.call(new SubtypeBenchmarkEvent());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.events.UncaughtEventExceptionEvent;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Measures calling an event whose only listener always throws.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionBenchmark
+{
+    /**
+     * Whether anything listens for uncaught exceptions.
+     */
+    public enum Handling
+    {
+        /**
+         * An {@link UncaughtEventExceptionEvent} listener is registered, so exceptions are dispatched to it.
+         */
+        HANDLED,
+        /**
+         * No {@link UncaughtEventExceptionEvent} listeners exist, so exceptions fall back to Bukkit's logging.
+         */
+        UNHANDLED
+    }
+    
+    @Param
+    public Handling handling;
+    
+    private Events events;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        server.server().getLogger().setLevel(Level.OFF); // Unhandled exceptions are logged (plugin loggers included), don't measure console output
+        
+        events = server.events("EventfulBenchmarks");
+        events.on(BenchmarkEvent.class, event -> { throw new IllegalStateException("benchmark"); });
+        
+        if (handling == Handling.HANDLED)
+        {
+            events.on(UncaughtEventExceptionEvent.class, event -> event.getException().getMessage());
+        }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        TestServer.get().reset();
+    }
+    
+    @Benchmark
+    public BenchmarkEvent callThrowing()
+    {
+        return events.call(new BenchmarkEvent());
+    }
+}
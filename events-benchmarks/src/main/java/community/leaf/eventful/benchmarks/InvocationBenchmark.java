@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of invoking a single listener registered in different ways.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvocationBenchmark
+{
+    /**
+     * How the listener is registered.
+     */
+    public enum Kind
+    {
+        /**
+         * An annotated listener method registered via {@link Events#register(org.bukkit.event.Listener)}.
+         */
+        METHOD,
+        /**
+         * An event consumer registered via {@link Events#on(Class, community.leaf.eventful.bukkit.EventConsumer)}.
+         */
+        CONSUMER,
+        /**
+         * An {@link org.bukkit.event.EventHandler} method registered by Bukkit itself (baseline).
+         */
+        BUKKIT
+    }
+    
+    @Param
+    public Kind kind;
+    
+    private Events events;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+        
+        switch (kind)
+        {
+            case METHOD: events.register(new MethodListener()); break;
+            case CONSUMER: events.on(BenchmarkEvent.class, BenchmarkEvent::handle); break;
+            case BUKKIT: server.pluginManager().registerEvents(new BukkitListener(), events.plugin()); break;
+        }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        TestServer.get().reset();
+    }
+    
+    @Benchmark
+    public BenchmarkEvent invoke()
+    {
+        return events.call(new BenchmarkEvent());
+    }
+}
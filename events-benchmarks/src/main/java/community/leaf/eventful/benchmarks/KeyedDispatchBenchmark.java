@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures calling an event that only one of many per-key consumers (e.g. one per player)
+ * is interested in, comparing consumers that check the key themselves to keyed consumers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyedDispatchBenchmark
+{
+    @Param({"10", "100", "1000"})
+    public int listeners;
+    
+    @Param({"predicate", "keyed"})
+    public String mode;
+    
+    private int target = 0;
+    private final Function<BenchmarkEvent, Integer> key = event -> target;
+    
+    private Events events;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+        
+        for (int i = 0; i < listeners; i++)
+        {
+            Integer value = i;
+            
+            if ("keyed".equals(mode))
+            {
+                events.on(BenchmarkEvent.class).keyedBy(key, value, BenchmarkEvent::handle);
+            }
+            else
+            {
+                events.on(BenchmarkEvent.class, event -> { if (value.equals(key.apply(event))) { event.handle(); } });
+            }
+        }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        TestServer.get().reset();
+    }
+    
+    /**
+     * Calls an event for the next key.
+     *
+     * @return the called event
+     */
+    @Benchmark
+    public BenchmarkEvent call()
+    {
+        target = (target + 1) % listeners;
+        return events.call(new BenchmarkEvent());
+    }
+}
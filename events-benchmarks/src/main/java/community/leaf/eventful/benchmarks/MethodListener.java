@@ -0,0 +1,24 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.ListenerOrder;
+import community.leaf.eventful.bukkit.annotations.EventListener;
+import org.bukkit.event.Listener;
+
+/**
+ * A listener with a single annotated method.
+ */
+public class MethodListener implements Listener
+{
+    @EventListener(ListenerOrder.NORMAL)
+    public void onBenchmarkEvent(BenchmarkEvent event)
+    {
+        event.handle();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.PooledEvent;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+
+/**
+ * A cancellable pooled event dispatched by benchmarks.
+ */
+public class PooledBenchmarkEvent extends PooledEvent implements Cancellable
+{
+    private int value = 0;
+    private int handled = 0;
+    
+    /**
+     * Sets the event's value.
+     *
+     * @param value     the value
+     *
+     * @return the event (for method chaining)
+     */
+    public PooledBenchmarkEvent value(int value)
+    {
+        this.value = value;
+        return this;
+    }
+    
+    /**
+     * Gets the event's value.
+     *
+     * @return the value
+     */
+    public int value()
+    {
+        checkNotReleased();
+        return value;
+    }
+    
+    /**
+     * Marks the event as handled by one more listener.
+     */
+    public void handle() { handled++; }
+    
+    /**
+     * Gets how many listeners have handled this event.
+     *
+     * @return the number of listeners
+     */
+    public int handled() { return handled; }
+    
+    @Override
+    protected void reset()
+    {
+        value = 0;
+        handled = 0;
+        cancelled = false;
+    }
+    
+    // - - - - - - Cancellable Boilerplate - - - - - -
+    
+    private boolean cancelled = false;
+    
+    @Override
+    public boolean isCancelled() { return cancelled; }
+    
+    @Override
+    public void setCancelled(boolean cancelled) { this.cancelled = cancelled; }
+    
+    // - - - - - - HandlerList Boilerplate - - - - - -
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public static HandlerList getHandlerList() { return HANDLERS; }
+    
+    @Override
+    public HandlerList getHandlers() { return HANDLERS; }
+}
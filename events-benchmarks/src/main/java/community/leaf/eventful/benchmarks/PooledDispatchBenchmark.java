@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.EventPool;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling a new event for every dispatch versus borrowing one from an {@link EventPool}.
+ * Compare allocation rates with {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PooledDispatchBenchmark
+{
+    @Param({"1", "10"})
+    public int listeners;
+    
+    private final EventPool<PooledBenchmarkEvent> pool = EventPool.of(PooledBenchmarkEvent::new);
+    
+    private Events events;
+    private int value = 0;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+        
+        for (int i = 0; i < listeners; i++)
+        {
+            events.on(PooledBenchmarkEvent.class, PooledBenchmarkEvent::handle);
+        }
+    }
+    
+    @TearDown
+    public void teardown()
+    {
+        TestServer.get().reset();
+    }
+    
+    /**
+     * Calls a newly allocated event.
+     *
+     * @return how many listeners handled the event
+     */
+    @Benchmark
+    public int allocated()
+    {
+        return events.call(new PooledBenchmarkEvent().value(value++)).handled();
+    }
+    
+    /**
+     * Calls an event borrowed from the pool.
+     *
+     * @return how many listeners handled the event
+     */
+    @Benchmark
+    public int pooled()
+    {
+        return events.call(pool, event -> event.value(value++), PooledBenchmarkEvent::handled);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.EventCodec;
+import community.leaf.eventful.bukkit.EventRecorder;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.testkit.TestServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the overhead that an {@link EventRecorder} adds to calling an event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordingBenchmark
+{
+    private static final EventCodec<PooledBenchmarkEvent> CODEC = EventCodec.of(
+        PooledBenchmarkEvent.class,
+        (event, buffer) -> buffer.putInt(event.value()),
+        buffer -> new PooledBenchmarkEvent().value(buffer.getInt())
+    );
+    
+    @Param({"false", "true"})
+    public boolean recording;
+    
+    private Events events;
+    private Path directory;
+    private EventRecorder recorder;
+    private int value = 0;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+        events.on(PooledBenchmarkEvent.class, PooledBenchmarkEvent::handle);
+        
+        directory = Files.createTempDirectory("eventful-recording");
+        if (recording) { recorder = events.record(directory.resolve("log"), List.of(CODEC)); }
+    }
+    
+    @TearDown
+    public void teardown() throws IOException
+    {
+        if (recorder != null) { recorder.close(); }
+        TestServer.get().reset();
+        
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) { Files.delete(path); }
+        }
+    }
+    
+    /**
+     * Calls an event, which is also recorded while recording.
+     *
+     * @return how many listeners handled the event
+     */
+    @Benchmark
+    public int call()
+    {
+        return events.call(new PooledBenchmarkEvent().value(value++)).handled();
+    }
+}
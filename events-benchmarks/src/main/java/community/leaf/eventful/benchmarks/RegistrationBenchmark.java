@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.SubscriptionGroup;
+import community.leaf.eventful.testkit.TestServer;
+import org.bukkit.event.HandlerList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering many listeners at once, then baking their handler list.
+ *
+ * <p>Handlers are unregistered after every invocation, which is only reasonable
+ * because each invocation registers enough listeners to dwarf the teardown.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark
+{
+    @Param({"10", "100", "1000"})
+    public int count;
+    
+    private final SubscriptionGroup subscriptions = new SubscriptionGroup();
+    
+    private Events events;
+    
+    @Setup
+    public void setup()
+    {
+        TestServer server = TestServer.get();
+        server.reset();
+        server.claimPrimaryThread();
+        
+        events = server.events("EventfulBenchmarks");
+    }
+    
+    @TearDown(Level.Invocation)
+    public void teardown()
+    {
+        subscriptions.close();
+        HandlerList.unregisterAll(); // Resetting the server would also disable the plugin
+    }
+    
+    /**
+     * Registers instances of an annotated listener class via {@link Events#register(org.bukkit.event.Listener)}.
+     *
+     * @param blackhole     consumes the baked handlers
+     */
+    @Benchmark
+    public void registerMethods(Blackhole blackhole)
+    {
+        for (int i = 0; i < count; i++) { events.register(new MethodListener()); }
+        blackhole.consume(BenchmarkEvent.getHandlerList().getRegisteredListeners());
+    }
+    
+    /**
+     * Registers event consumers via {@link Events#on(Class, community.leaf.eventful.bukkit.EventConsumer)}.
+     *
+     * @param blackhole     consumes the baked handlers
+     */
+    @Benchmark
+    public void registerConsumers(Blackhole blackhole)
+    {
+        for (int i = 0; i < count; i++) { events.on(BenchmarkEvent.class, BenchmarkEvent::handle); }
+        blackhole.consume(BenchmarkEvent.getHandlerList().getRegisteredListeners());
+    }
+    
+    /**
+     * Registers event consumers in a single {@link Events#batch(java.util.function.Consumer) batch}.
+     *
+     * @param blackhole     consumes the baked handlers
+     */
+    @Benchmark
+    public void registerConsumersBatched(Blackhole blackhole)
+    {
+        events.batch(batch -> {
+            for (int i = 0; i < count; i++) { batch.on(BenchmarkEvent.class, BenchmarkEvent::handle); }
+        });
+        blackhole.consume(BenchmarkEvent.getHandlerList().getRegisteredListeners());
+    }
+    
+    /**
+     * Registers event consumers with {@link Events#multiplexing() multiplexing} enabled,
+     * so that they share a single registered listener.
+     *
+     * @param blackhole     consumes the baked handlers
+     */
+    @Benchmark
+    public void registerConsumersMultiplexed(Blackhole blackhole)
+    {
+        events.multiplexing().enable();
+        
+        try
+        {
+            for (int i = 0; i < count; i++) { subscriptions.add(events.on(BenchmarkEvent.class, BenchmarkEvent::handle)); }
+        }
+        finally { events.multiplexing().disable(); }
+        
+        blackhole.consume(BenchmarkEvent.getHandlerList().getRegisteredListeners());
+    }
+}
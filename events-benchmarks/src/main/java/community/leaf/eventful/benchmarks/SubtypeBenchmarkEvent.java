@@ -0,0 +1,14 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.benchmarks;
+
+/**
+ * A subtype of {@link BenchmarkEvent} that shares its handler list, much like
+ * {@code EntityDamageByEntityEvent} shares {@code EntityDamageEvent}'s handlers.
+ */
+public class SubtypeBenchmarkEvent extends BenchmarkEvent {}
@@ -0,0 +1,11 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+@NonNullPackage
+package community.leaf.eventful.benchmarks;
+
+import pl.tlinkowski.annotation.basic.NonNullPackage;
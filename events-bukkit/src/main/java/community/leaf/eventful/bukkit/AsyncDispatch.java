@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calls asynchronous events off of the calling thread.
+ */
+final class AsyncDispatch
+{
+    private AsyncDispatch() { throw new UnsupportedOperationException(); }
+    
+    /**
+     * Maximum number of asynchronous dispatches that may be queued or running at once.
+     */
+    static final int MAX_IN_FLIGHT = 1024;
+    
+    private static final Semaphore IN_FLIGHT = new Semaphore(MAX_IN_FLIGHT);
+    
+    /**
+     * Gets the shared executor used when no executor is specified. Its daemon threads
+     * time out when idle, so it doesn't hold on to anything once dispatching stops.
+     *
+     * @return the default executor
+     */
+    static Executor defaultExecutor()
+    {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+    
+    /**
+     * Calls the provided event with the dispatcher on the executor.
+     *
+     * @param dispatcher    calls the event
+     * @param event         the event, which must be asynchronous
+     * @param executor      runs the dispatch
+     * @param <E>           event type
+     *
+     * @return a future completed with the event once it has been called, or exceptionally if the
+     *         event isn't asynchronous, too many dispatches are in flight, or the dispatch failed
+     */
+    static <E extends Event> CompletableFuture<E> call(EventDispatcher dispatcher, E event, Executor executor)
+    {
+        Objects.requireNonNull(dispatcher, "dispatcher");
+        Objects.requireNonNull(event, "event");
+        Objects.requireNonNull(executor, "executor");
+        
+        if (!event.isAsynchronous())
+        {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                event.getEventName() + " is synchronous and cannot be called asynchronously"
+            ));
+        }
+        
+        if (!IN_FLIGHT.tryAcquire())
+        {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                "Too many asynchronous event dispatches in flight (max: " + MAX_IN_FLIGHT + ")"
+            ));
+        }
+        
+        CompletableFuture<E> future = new CompletableFuture<>();
+        
+        // Released exactly once: by the dispatch, or here if the executor fails (even after running it)
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> { if (released.compareAndSet(false, true)) { IN_FLIGHT.release(); } };
+        
+        try
+        {
+            executor.execute(() ->
+            {
+                try { future.complete(dispatcher.call(event)); }
+                catch (Throwable throwable) { future.completeExceptionally(throwable); }
+                finally { release.run(); }
+            });
+        }
+        catch (Throwable throwable) // Not just RejectedExecutionException: any failure would leak the permit
+        {
+            release.run();
+            future.completeExceptionally(throwable);
+        }
+        
+        return future;
+    }
+    
+    private static final class DefaultExecutorHolder
+    {
+        static final ThreadPoolExecutor EXECUTOR;
+        
+        static
+        {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            AtomicInteger count = new AtomicInteger();
+            
+            ThreadFactory factory = runnable ->
+            {
+                Thread thread = new Thread(runnable, "Eventful Async Dispatch #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            
+            // Queue is effectively bounded by MAX_IN_FLIGHT
+            EXECUTOR = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+/**
+ * Summary of a committed registration batch.
+ *
+ * @see Events#batch(java.util.function.Consumer)
+ */
+public final class BatchReport
+{
+    private final int registrations;
+    private final int bakes;
+    
+    BatchReport(int registrations, int bakes)
+    {
+        this.registrations = registrations;
+        this.bakes = bakes;
+    }
+    
+    /**
+     * Gets the number of listeners registered by the batch.
+     *
+     * @return the number of registrations
+     */
+    public int registrations()
+    {
+        return registrations;
+    }
+    
+    /**
+     * Gets the number of handler lists baked by the batch, which is
+     * the number of distinct handler lists that listeners were registered to.
+     *
+     * @return the number of bakes
+     */
+    public int bakes()
+    {
+        return bakes;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "BatchReport{registrations=" + registrations + ", bakes=" + bakes + "}";
+    }
+}
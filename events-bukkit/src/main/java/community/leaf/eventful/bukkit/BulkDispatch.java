@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.Server;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.AuthorNagException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.logging.Level;
+
+/**
+ * Calls many events at once, mirroring the plugin manager's {@code callEvent()} but only
+ * checking threads, locking, and fetching handlers once per run of consecutive events
+ * that share a handler list and synchronicity (rather than once per event).
+ */
+final class BulkDispatch
+{
+    /**
+     * Calls every event.
+     *
+     * @param server    the server
+     * @param events    the events to call
+     *
+     * @return the number of events that were cancelled after being called
+     */
+    static int callAll(Server server, Iterator<? extends Event> events)
+    {
+        Objects.requireNonNull(server, "server");
+        Objects.requireNonNull(events, "events");
+        
+        BulkDispatch dispatch = new BulkDispatch(server, events);
+        dispatch.run();
+        return dispatch.cancelled;
+    }
+    
+    private final Server server;
+    private final PluginManager manager;
+    private final Iterator<? extends Event> events;
+    
+    private int cancelled = 0;
+    
+    private BulkDispatch(Server server, Iterator<? extends Event> events)
+    {
+        this.server = server;
+        this.manager = server.getPluginManager();
+        this.events = events;
+    }
+    
+    private @NullOr Event next()
+    {
+        return (events.hasNext()) ? Objects.requireNonNull(events.next(), "event") : null;
+    }
+    
+    private void run()
+    {
+        for (@NullOr Event first = next(); first != null; )
+        {
+            if (first.isAsynchronous())
+            {
+                if (Thread.holdsLock(manager))
+                {
+                    throw new IllegalStateException(first.getEventName() + " cannot be triggered asynchronously from inside synchronized code.");
+                }
+                if (server.isPrimaryThread())
+                {
+                    throw new IllegalStateException(first.getEventName() + " cannot be triggered asynchronously from primary server thread.");
+                }
+                
+                first = fireRun(first);
+            }
+            else
+            {
+                if (!server.isPrimaryThread())
+                {
+                    throw new IllegalStateException(first.getEventName() + " may only be triggered synchronously.");
+                }
+                
+                // Mirrors the plugin manager's lock for synchronous events, but taken once per run
+                synchronized (manager) { first = fireRun(first); }
+            }
+        }
+    }
+    
+    /**
+     * Fires consecutive events sharing the first event's handler list and synchronicity.
+     *
+     * @return the first event of the next run or {@code null} if there are no more events
+     */
+    private @NullOr Event fireRun(Event first)
+    {
+        HandlerList handlers = first.getHandlers();
+        RegisteredListener[] listeners = handlers.getRegisteredListeners();
+        boolean async = first.isAsynchronous();
+        
+        for (@NullOr Event event = first; event != null; event = next())
+        {
+            if (event.getHandlers() != handlers || event.isAsynchronous() != async) { return event; }
+            
+            fire(event, listeners);
+            if (event instanceof Cancellable && ((Cancellable) event).isCancelled()) { cancelled++; }
+        }
+        
+        return null;
+    }
+    
+    private void fire(Event event, RegisteredListener[] listeners)
+    {
+        for (RegisteredListener registration : listeners)
+        {
+            Plugin plugin = registration.getPlugin();
+            if (!plugin.isEnabled()) { continue; }
+            
+            try { registration.callEvent(event); }
+            catch (AuthorNagException e)
+            {
+                if (!plugin.isNaggable()) { continue; }
+                
+                plugin.setNaggable(false);
+                server.getLogger().log(Level.SEVERE, String.format(
+                    "Nag author(s): '%s' of '%s' about the following: %s",
+                    plugin.getDescription().getAuthors(),
+                    plugin.getDescription().getFullName(),
+                    e.getMessage()
+                ));
+            }
+            catch (Throwable e)
+            {
+                server.getLogger().log(
+                    Level.SEVERE,
+                    "Could not pass event " + event.getEventName() + " to " + plugin.getDescription().getFullName(),
+                    e
+                );
+            }
+        }
+    }
+}
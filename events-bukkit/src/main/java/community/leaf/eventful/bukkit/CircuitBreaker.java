@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent.Reason;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent.State;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Suspends a single registered listener when it fails too often or takes too long.
+ *
+ * <p>While closed, the only overhead is a state check (plus timing if the policy has a
+ * time limit). Once open, events are skipped until the cooldown elapses, after which
+ * exactly one invocation is allowed through on trial to decide whether to close again.</p>
+ */
+final class CircuitBreaker
+{
+    private static final Status CLOSED = new Status(State.CLOSED, 0);
+    private static final Status HALF_OPEN = new Status(State.HALF_OPEN, 0);
+    
+    private final Plugin plugin;
+    private final CircuitBreakers breakers;
+    private final Listener listener;
+    private final Class<? extends Event> eventType;
+    
+    private final int maxFailures;
+    private final long failureWindowNanos;
+    private final long maxNanosPerTick;
+    private final long cooldownNanos;
+    private final @NullOr ServerTicks ticks;
+    
+    // Replaced as a whole, so that the time a breaker opened at only ever changes along with its state
+    private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+    
+    // Guarded by this
+    private long failureWindowStart = 0;
+    private int failures = 0;
+    
+    // Approximate for asynchronous events: concurrent invocations at a tick boundary may be lost
+    private volatile long spentTick = -1;
+    private final AtomicLong spentNanos = new AtomicLong();
+    
+    CircuitBreaker(
+        Plugin plugin,
+        CircuitBreakers breakers,
+        Listener listener,
+        Class<? extends Event> eventType,
+        CircuitBreakerPolicy policy
+    ) {
+        this.plugin = plugin;
+        this.breakers = breakers;
+        this.listener = listener;
+        this.eventType = eventType;
+        
+        this.maxFailures = policy.maxFailures();
+        this.failureWindowNanos = policy.failureWindow().toNanos();
+        this.maxNanosPerTick = policy.maxTimePerTick().toNanos();
+        this.cooldownNanos = policy.cooldown().toNanos();
+        this.ticks = (maxNanosPerTick > 0) ? ServerTicks.of(plugin) : null;
+    }
+    
+    ExceptionalExecutor protect(ExceptionalExecutor executor)
+    {
+        return (li, event) ->
+        {
+            if (!breakers.isEnabled())
+            {
+                executor.execute(li, event);
+                return;
+            }
+            
+            boolean trial = false;
+            Status current = status.get();
+            
+            if (current != CLOSED)
+            {
+                // Skip while suspended, or while another invocation is on trial
+                if (current == HALF_OPEN || System.nanoTime() - current.openedAt < cooldownNanos) { return; }
+                if (!transition(current, HALF_OPEN, Reason.COOLDOWN_ELAPSED)) { return; }
+                trial = true;
+            }
+            
+            long start = (trial || maxNanosPerTick > 0) ? System.nanoTime() : 0;
+            
+            try { executor.execute(li, event); }
+            catch (Throwable throwable)
+            {
+                if (trial) { transition(HALF_OPEN, opened(), Reason.TRIAL_FAILED); }
+                else { failed(); }
+                throw throwable;
+            }
+            
+            if (trial)
+            {
+                boolean slow = maxNanosPerTick > 0 && System.nanoTime() - start > maxNanosPerTick;
+                if (slow) { transition(HALF_OPEN, opened(), Reason.TRIAL_FAILED); }
+                else { transition(HALF_OPEN, CLOSED, Reason.TRIAL_SUCCEEDED); }
+            }
+            else if (maxNanosPerTick > 0)
+            {
+                spent(System.nanoTime() - start);
+            }
+        };
+    }
+    
+    private void failed()
+    {
+        long now = System.nanoTime();
+        boolean trip;
+        
+        synchronized (this)
+        {
+            if (now - failureWindowStart > failureWindowNanos)
+            {
+                failureWindowStart = now;
+                failures = 0;
+            }
+            
+            trip = ++failures >= maxFailures;
+            if (trip) { failures = 0; }
+        }
+        
+        if (trip) { transition(CLOSED, opened(), Reason.FAILURES); }
+    }
+    
+    private void spent(long nanos)
+    {
+        @NullOr ServerTicks clock = ticks;
+        if (clock == null) { return; }
+        
+        long tick = clock.current();
+        
+        if (spentTick != tick)
+        {
+            spentTick = tick;
+            spentNanos.set(0);
+        }
+        
+        if (spentNanos.addAndGet(nanos) > maxNanosPerTick)
+        {
+            spentNanos.set(0);
+            transition(CLOSED, opened(), Reason.SLOW);
+        }
+    }
+    
+    private static Status opened()
+    {
+        return new Status(State.OPEN, System.nanoTime());
+    }
+    
+    /**
+     * Changes the breaker's status, only if it's still the expected status (so that
+     * a breaker that was already tripped by a concurrent invocation isn't reopened).
+     */
+    private boolean transition(Status from, Status to, Reason reason)
+    {
+        if (!status.compareAndSet(from, to)) { return false; }
+        
+        EventsImpl.dispatch(new CircuitBreakerStateChangeEvent(
+            !Bukkit.isPrimaryThread(), plugin, listener, eventType, from.state, to.state, reason
+        ));
+        
+        return true;
+    }
+    
+    private static final class Status
+    {
+        final State state;
+        final long openedAt;
+        
+        Status(State state, long openedAt)
+        {
+            this.state = state;
+            this.openedAt = openedAt;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Thresholds that trip a listener's circuit breaker, suspending the listener.
+ *
+ * <p>Policies are immutable: each {@code with} method returns a new policy.</p>
+ *
+ * @see CircuitBreakers
+ */
+public final class CircuitBreakerPolicy
+{
+    private static final CircuitBreakerPolicy DEFAULTS =
+        new CircuitBreakerPolicy(10, Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(30));
+    
+    /**
+     * Gets the default policy: suspend listeners that fail 10 times within 10 seconds
+     * for 30 seconds, without any time limit.
+     *
+     * @return the default policy
+     */
+    public static CircuitBreakerPolicy defaults()
+    {
+        return DEFAULTS;
+    }
+    
+    private final int maxFailures;
+    private final Duration failureWindow;
+    private final Duration maxTimePerTick;
+    private final Duration cooldown;
+    
+    private CircuitBreakerPolicy(int maxFailures, Duration failureWindow, Duration maxTimePerTick, Duration cooldown)
+    {
+        this.maxFailures = maxFailures;
+        this.failureWindow = failureWindow;
+        this.maxTimePerTick = maxTimePerTick;
+        this.cooldown = cooldown;
+    }
+    
+    private static Duration positive(Duration duration, String name)
+    {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative() || duration.isZero()) { throw new IllegalArgumentException(name + " must be positive: " + duration); }
+        return duration;
+    }
+    
+    /**
+     * Trips the breaker once the listener fails (throws) {@code maxFailures}
+     * times within the window.
+     *
+     * @param maxFailures   number of failures that trip the breaker
+     * @param window        the window that failures are counted in
+     *
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withMaxFailures(int maxFailures, Duration window)
+    {
+        if (maxFailures <= 0) { throw new IllegalArgumentException("maxFailures must be positive: " + maxFailures); }
+        return new CircuitBreakerPolicy(maxFailures, positive(window, "window"), maxTimePerTick, cooldown);
+    }
+    
+    /**
+     * Trips the breaker once the listener spends more than {@code maxTimePerTick}
+     * handling events during a single server tick.
+     *
+     * @param maxTimePerTick    cumulative time per tick that trips the breaker
+     *
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withMaxTimePerTick(Duration maxTimePerTick)
+    {
+        return new CircuitBreakerPolicy(maxFailures, failureWindow, positive(maxTimePerTick, "maxTimePerTick"), cooldown);
+    }
+    
+    /**
+     * Removes the time limit.
+     *
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withoutTimeLimit()
+    {
+        return new CircuitBreakerPolicy(maxFailures, failureWindow, Duration.ZERO, cooldown);
+    }
+    
+    /**
+     * Sets how long listeners stay suspended before being tried again.
+     *
+     * @param cooldown  the cooldown
+     *
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withCooldown(Duration cooldown)
+    {
+        return new CircuitBreakerPolicy(maxFailures, failureWindow, maxTimePerTick, positive(cooldown, "cooldown"));
+    }
+    
+    /**
+     * Gets the number of failures that trip the breaker.
+     *
+     * @return the max failures
+     */
+    public int maxFailures()
+    {
+        return maxFailures;
+    }
+    
+    /**
+     * Gets the window that failures are counted in.
+     *
+     * @return the failure window
+     */
+    public Duration failureWindow()
+    {
+        return failureWindow;
+    }
+    
+    /**
+     * Gets the cumulative time per tick that trips the breaker.
+     *
+     * @return the time limit or {@link Duration#ZERO} if there isn't one
+     */
+    public Duration maxTimePerTick()
+    {
+        return maxTimePerTick;
+    }
+    
+    /**
+     * Gets how long listeners stay suspended before being tried again.
+     *
+     * @return the cooldown
+     */
+    public Duration cooldown()
+    {
+        return cooldown;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "CircuitBreakerPolicy{" +
+            "maxFailures=" + maxFailures +
+            ", failureWindow=" + failureWindow +
+            ", maxTimePerTick=" + maxTimePerTick +
+            ", cooldown=" + cooldown +
+            "}";
+    }
+}
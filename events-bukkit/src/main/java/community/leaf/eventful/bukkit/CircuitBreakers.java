@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Opt-in circuit breakers for a plugin's event listeners, which protect the server from
+ * a single faulting or slow listener by temporarily suspending it (without unregistering it).
+ *
+ * <p>Only listeners registered (through Eventful) while circuit breakers are enabled are
+ * protected, each by its own breaker using the policy that was active when it was registered.
+ * Disabling circuit breakers bypasses every breaker, resuming suspended listeners.</p>
+ *
+ * @see Events#circuitBreakers()
+ * @see CircuitBreakerStateChangeEvent
+ */
+public interface CircuitBreakers
+{
+    /**
+     * Checks whether circuit breakers are enabled.
+     *
+     * @return {@code true} if listeners are protected by circuit breakers
+     */
+    boolean isEnabled();
+    
+    /**
+     * Gets the policy applied to newly registered listeners.
+     *
+     * @return the current policy or {@code null} if disabled
+     */
+    @NullOr CircuitBreakerPolicy policy();
+    
+    /**
+     * Enables circuit breakers, protecting listeners registered from now on with the provided policy.
+     *
+     * @param policy    the policy
+     */
+    void enable(CircuitBreakerPolicy policy);
+    
+    /**
+     * Enables circuit breakers with the {@link CircuitBreakerPolicy#defaults() default} policy.
+     */
+    default void enable() { enable(CircuitBreakerPolicy.defaults()); }
+    
+    /**
+     * Disables circuit breakers: new listeners aren't protected, and existing breakers are bypassed.
+     */
+    void disable();
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the latest event per key, then delivers them all to the
+ * wrapped consumer once per tick on the main thread.
+ *
+ * <p>Pending events are held in one of two maps that are swapped on every
+ * flush and cleared afterwards, so steady-state coalescing doesn't allocate
+ * (beyond whatever the maps need to grow). A flush is only scheduled once
+ * an event arrives, so idle registrations cost nothing.</p>
+ *
+ * <p>Like {@link OffloadingConsumer}, deliveries (rather than coalescing) are what the
+ * listener's metrics and circuit breaker see, and exceptions are reported through the
+ * consumer's own {@link ExceptionGuard}. When coalesced events are handed on to an
+ * offloading consumer, that's where they're handled, so it's instrumented instead.
+ * Events still pending once the consumer's subscription is closed are discarded.</p>
+ *
+ * @param <E>   event type
+ */
+final class CoalescingConsumer<E extends Event> implements DeferredConsumer<E>
+{
+    private final Plugin plugin;
+    private final Function<? super E, ?> key;
+    private final boolean ignoreCancelled;
+    private final EventConsumer<E> consumer;
+    private final ExceptionGuard guard;
+    
+    private volatile ExceptionalExecutor delivery;
+    private volatile @NullOr Subscription subscription = null;
+    
+    // Guarded by this
+    private Map<@NullOr Object, E> pending = new LinkedHashMap<>();
+    private Map<@NullOr Object, E> draining = new LinkedHashMap<>();
+    private boolean scheduled = false;
+    
+    @SuppressWarnings("unchecked")
+    CoalescingConsumer(Plugin plugin, Function<? super E, ?> key, boolean ignoreCancelled, EventConsumer<E> consumer)
+    {
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.key = Objects.requireNonNull(key, "key");
+        this.ignoreCancelled = ignoreCancelled;
+        this.consumer = Objects.requireNonNull(consumer, "consumer");
+        this.guard = new ExceptionGuard(plugin, consumer);
+        this.delivery = (li, event) -> consumer.accept((E) event);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public void instrument(UnaryOperator<ExceptionalExecutor> decoration)
+    {
+        // Coalesced events handed on to another deferred consumer are handled there
+        if (consumer instanceof DeferredConsumer) { ((DeferredConsumer<E>) consumer).instrument(decoration); }
+        else { this.delivery = decoration.apply(delivery); }
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bind(Subscription subscription)
+    {
+        this.subscription = subscription;
+        if (consumer instanceof DeferredConsumer) { ((DeferredConsumer<E>) consumer).bind(subscription); }
+    }
+    
+    @Override
+    public void accept(E event)
+    {
+        @NullOr Object k = key.apply(event);
+        
+        synchronized (this)
+        {
+            pending.put(k, event);
+            if (scheduled) { return; }
+            scheduled = true;
+        }
+        
+        plugin.getServer().getScheduler().runTask(plugin, this::flush);
+    }
+    
+    private void flush()
+    {
+        Map<@NullOr Object, E> events;
+        
+        synchronized (this)
+        {
+            events = pending;
+            pending = draining;
+            draining = events;
+            scheduled = false;
+        }
+        
+        // Only the main thread flushes, so nothing else touches the drained map until the next flush
+        try
+        {
+            for (E event : events.values())
+            {
+                @NullOr Subscription owner = subscription;
+                if (owner != null && !owner.isActive()) { return; } // Closed while events were pending
+                
+                // Skip events cancelled by later listeners after they were coalesced
+                if (ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) { continue; }
+                
+                try { delivery.execute(consumer, event); }
+                catch (Error error) { throw error; } // Rethrow errors
+                catch (Throwable uncaught) { EventsImpl.uncaught(plugin, consumer, guard, event, uncaught); }
+            }
+        }
+        finally
+        {
+            events.clear();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import org.bukkit.event.Event;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * A consumer that delivers events to the listener it wraps after they've been called
+ * (such as {@link CoalescingConsumer coalescing} or {@link OffloadingConsumer offloading}),
+ * so the listener is instrumented and scoped where it actually handles events.
+ *
+ * @param <E>   event type
+ */
+interface DeferredConsumer<E extends Event> extends EventConsumer<E>
+{
+    /**
+     * Decorates deliveries to the wrapped consumer, such as with metrics or a circuit breaker.
+     * Must be called while registering, before any events are accepted.
+     *
+     * @param decoration    decorates the delivery executor
+     */
+    void instrument(UnaryOperator<ExceptionalExecutor> decoration);
+    
+    /**
+     * Binds the subscription that registered this consumer, so that events
+     * still pending once it's closed are never delivered.
+     *
+     * @param subscription  the subscription
+     */
+    void bind(Subscription subscription);
+}
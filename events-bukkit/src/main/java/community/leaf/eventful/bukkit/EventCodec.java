@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Encodes events of a single type to bytes, and decodes them back into events.
+ *
+ * <p>Events are encoded directly into the recorder's memory-mapped segment, so
+ * codecs must only use the buffer's <i>relative</i> {@code put} methods. Decoding
+ * receives a buffer limited to exactly the bytes that were encoded.</p>
+ *
+ * @param <E>   event type
+ *
+ * @see EventRecorder
+ * @see EventReplayer
+ */
+public interface EventCodec<E extends Event>
+{
+    /**
+     * Creates a codec from the provided functions.
+     *
+     * @param type      the event type
+     * @param encoder   writes an event to a buffer
+     * @param decoder   reads an event from a buffer
+     * @param <E>       event type
+     *
+     * @return a new codec
+     */
+    static <E extends Event> EventCodec<E> of(
+        Class<E> type,
+        BiConsumer<? super E, ByteBuffer> encoder,
+        Function<ByteBuffer, ? extends E> decoder
+    ) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(encoder, "encoder");
+        Objects.requireNonNull(decoder, "decoder");
+        
+        return new EventCodec<>()
+        {
+            @Override
+            public Class<E> type() { return type; }
+            
+            @Override
+            public void encode(E event, ByteBuffer buffer) { encoder.accept(event, buffer); }
+            
+            @Override
+            public E decode(ByteBuffer buffer) { return decoder.apply(buffer); }
+        };
+    }
+    
+    /**
+     * Gets the event type, whose name identifies recorded events.
+     *
+     * @return the event type
+     */
+    Class<E> type();
+    
+    /**
+     * Writes the event to the buffer.
+     *
+     * @param event     the event
+     * @param buffer    the buffer to write to (with relative puts)
+     *
+     * @throws java.nio.BufferOverflowException if the buffer doesn't have enough space left
+     */
+    void encode(E event, ByteBuffer buffer);
+    
+    /**
+     * Reads an event from the buffer.
+     *
+     * @param buffer    the buffer containing exactly one encoded event
+     *
+     * @return a new event
+     */
+    E decode(ByteBuffer buffer);
+}
@@ -7,8 +7,20 @@
  */
 package community.leaf.eventful.bukkit;
 
+import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Calls Bukkit events.
  */
@@ -24,4 +36,141 @@ public interface EventDispatcher
      * @return the called event
      */
     <E extends Event> E call(E event);
+    
+    /**
+     * Calls every event in the collection, in order.
+     *
+     * @param events    the events to call
+     *
+     * @return the number of events that were cancelled after being called
+     *
+     * @see #callAll(Stream)
+     */
+    default int callAll(Collection<? extends Event> events)
+    {
+        Objects.requireNonNull(events, "events");
+        
+        int cancelled = 0;
+        
+        for (Event event : events)
+        {
+            if (call(event) instanceof Cancellable && ((Cancellable) event).isCancelled()) { cancelled++; }
+        }
+        
+        return cancelled;
+    }
+    
+    /**
+     * Calls every event in the stream, in order. Dispatchers provided by Eventful
+     * (such as {@link Events}) resolve the listeners and perform the plugin manager's
+     * thread checks once per run of consecutive events sharing a handler list, rather
+     * than once per event. As a result, listeners registered or unregistered during a run
+     * only apply from the next run.
+     *
+     * @param events    the events to call
+     *
+     * @return the number of events that were cancelled after being called
+     */
+    default int callAll(Stream<? extends Event> events)
+    {
+        Objects.requireNonNull(events, "events");
+        return callAll(events.collect(Collectors.toList()));
+    }
+    
+    /**
+     * Calls the event created by the supplier, but only if the event type has any
+     * registered listeners. Otherwise, the event isn't even created, which saves
+     * building expensive events that nobody listens to.
+     *
+     * @param type      the event type, whose handler list is checked
+     * @param event     creates the event to call
+     * @param <E>       event type
+     *
+     * @return the called event or empty if nothing listens to it
+     *
+     * @see Events#hasListeners(Class)
+     */
+    default <E extends Event> Optional<E> callIfListened(Class<E> type, Supplier<? extends E> event)
+    {
+        Objects.requireNonNull(event, "event");
+        if (!Events.hasListeners(type)) { return Optional.empty(); }
+        return Optional.of(call(Objects.requireNonNull(event.get(), "event")));
+    }
+    
+    /**
+     * Calls the provided asynchronous event on a shared pool of daemon threads.
+     *
+     * @param event     the asynchronous event to call
+     * @param <E>       event type
+     *
+     * @return a future completed with the called event
+     *
+     * @see #callAsync(Event, Executor)
+     */
+    default <E extends Event> CompletableFuture<E> callAsync(E event)
+    {
+        return callAsync(event, AsyncDispatch.defaultExecutor());
+    }
+    
+    /**
+     * Calls the provided asynchronous event on the executor, so that callers aren't held up by
+     * slow listeners. The returned future completes exceptionally if the event is synchronous
+     * (since synchronous events can only be called on the main thread), if too many asynchronous
+     * dispatches are already in flight, or if calling the event fails.
+     *
+     * @param event     the asynchronous event to call
+     * @param executor  runs the dispatch
+     * @param <E>       event type
+     *
+     * @return a future completed with the called event
+     *
+     * @see Event#isAsynchronous()
+     */
+    default <E extends Event> CompletableFuture<E> callAsync(E event, Executor executor)
+    {
+        return AsyncDispatch.call(this, event, executor);
+    }
+    
+    /**
+     * Borrows an event from the pool, initializes it, calls it, then returns it to the pool.
+     *
+     * @param pool          the pool
+     * @param initializer   initializes the borrowed event before it's called
+     * @param <E>           pooled event type
+     *
+     * @see #call(EventPool, Consumer, Function)
+     */
+    default <E extends PooledEvent> void call(EventPool<E> pool, Consumer<? super E> initializer)
+    {
+        call(pool, initializer, event -> null);
+    }
+    
+    /**
+     * Borrows an event from the pool, initializes it, calls it, then extracts a result
+     * (such as whether it was cancelled) before returning it to the pool. The event
+     * itself must not be used after this method returns.
+     *
+     * @param pool          the pool
+     * @param initializer   initializes the borrowed event before it's called
+     * @param result        extracts a result from the called event
+     * @param <E>           pooled event type
+     * @param <R>           result type
+     *
+     * @return the extracted result
+     */
+    default <E extends PooledEvent, R> R call(EventPool<E> pool, Consumer<? super E> initializer, Function<? super E, R> result)
+    {
+        Objects.requireNonNull(pool, "pool");
+        Objects.requireNonNull(initializer, "initializer");
+        Objects.requireNonNull(result, "result");
+        
+        E event = pool.borrow();
+        
+        try
+        {
+            initializer.accept(event);
+            return result.apply(call(event));
+        }
+        finally { pool.release(event); }
+    }
 }
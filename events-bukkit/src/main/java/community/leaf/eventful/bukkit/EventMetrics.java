@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import java.util.List;
+
+/**
+ * Opt-in per-listener timing for a plugin's event listeners.
+ *
+ * <p>Only listeners registered (through Eventful) while metrics are enabled
+ * are instrumented. Disabling metrics stops recording without removing the
+ * instrumentation, so re-enabling resumes recording for those listeners.</p>
+ *
+ * @see Events#metrics()
+ */
+public interface EventMetrics
+{
+    /**
+     * Checks whether metrics are enabled.
+     *
+     * @return {@code true} if listeners are being instrumented and recorded
+     */
+    boolean isEnabled();
+    
+    /**
+     * Enables metrics: listeners registered from now on are instrumented,
+     * and instrumented listeners record their invocations.
+     */
+    void enable();
+    
+    /**
+     * Disables metrics: new listeners aren't instrumented, and
+     * instrumented listeners stop recording their invocations.
+     */
+    void disable();
+    
+    /**
+     * Gets a snapshot of every instrumented listener that's still registered.
+     *
+     * @return listener statistics
+     */
+    List<ListenerStats> listeners();
+    
+    /**
+     * Clears all recorded statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.Bukkit;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable events. The server thread borrows from its own stack of idle events,
+ * so borrowing and returning events on the server thread never contends, while all other
+ * threads share a second (synchronized) stack. Nested dispatches of the same event type
+ * simply borrow another instance.
+ *
+ * <p>Idle events are only referenced by the pool itself, rather than by thread-locals,
+ * which would keep them (and through them, the plugin's class loader) reachable from
+ * every thread that ever borrowed one, even after the plugin is disabled or reloaded.</p>
+ *
+ * <p>While debugging, released events are never reused: they stay released, so any
+ * listener that retained one fails as soon as it uses it (provided that the event's
+ * accessors {@link PooledEvent#checkNotReleased() check}), rather than silently
+ * observing a later dispatch.</p>
+ *
+ * @param <E>   pooled event type
+ *
+ * @see EventDispatcher#call(EventPool, java.util.function.Consumer)
+ */
+public final class EventPool<E extends PooledEvent>
+{
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * Creates a new pool.
+     *
+     * @param factory   creates new events when a thread's pool is empty
+     * @param <E>       pooled event type
+     *
+     * @return a new pool keeping up to 16 idle events for the server thread and 16 for all other threads
+     */
+    public static <E extends PooledEvent> EventPool<E> of(Supplier<E> factory)
+    {
+        return of(factory, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Creates a new pool.
+     *
+     * @param factory       creates new events when a thread's pool is empty
+     * @param capacity      maximum number of idle events kept for the server thread and for all other threads
+     * @param <E>           pooled event type
+     *
+     * @return a new pool
+     *
+     * @throws IllegalArgumentException if {@code capacity} isn't positive
+     */
+    public static <E extends PooledEvent> EventPool<E> of(Supplier<E> factory, int capacity)
+    {
+        return new EventPool<>(factory, capacity);
+    }
+    
+    private final Supplier<E> factory;
+    private final Idle<E> primary;
+    private final Idle<E> shared; // Guarded by itself
+    
+    private volatile @NullOr Thread primaryThread = null;
+    private volatile boolean debugging = false;
+    
+    private EventPool(Supplier<E> factory, int capacity)
+    {
+        if (capacity <= 0) { throw new IllegalArgumentException("Invalid capacity: " + capacity); }
+        
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.primary = new Idle<>(capacity);
+        this.shared = new Idle<>(capacity);
+    }
+    
+    /**
+     * Checks whether the pool is debugging, i.e. never reusing events so that retained ones are detected.
+     *
+     * @return {@code true} if debugging
+     */
+    public boolean isDebugging()
+    {
+        return debugging;
+    }
+    
+    /**
+     * Sets whether the pool is debugging. Debugging allocates a new event for every
+     * dispatch (like not pooling at all), so it's only meant for development.
+     *
+     * @param debugging     {@code true} to debug
+     */
+    public void debug(boolean debugging)
+    {
+        this.debugging = debugging;
+    }
+    
+    E borrow()
+    {
+        @NullOr E event = (debugging) ? null : pop();
+        
+        if (event == null)
+        {
+            event = Objects.requireNonNull(factory.get(), "factory returned null");
+            if (event.isReleased()) { throw new IllegalStateException("Factory returned a released event: " + event); }
+        }
+        
+        event.borrowed();
+        return event;
+    }
+    
+    void release(E event)
+    {
+        event.released();
+        if (debugging) { return; } // Left released: retaining listeners trip over it
+        
+        if (isPrimaryThread())
+        {
+            primary.push(event);
+            return;
+        }
+        
+        synchronized (shared) { shared.push(event); }
+    }
+    
+    private @NullOr E pop()
+    {
+        if (isPrimaryThread()) { return primary.pop(); }
+        synchronized (shared) { return shared.pop(); }
+    }
+    
+    private boolean isPrimaryThread()
+    {
+        Thread current = Thread.currentThread();
+        @NullOr Thread known = primaryThread;
+        
+        if (known != null) { return current == known; }
+        if (!Bukkit.isPrimaryThread()) { return false; }
+        
+        primaryThread = current;
+        return true;
+    }
+    
+    // A bare stack, since it's on the hot path of every pooled dispatch
+    private static final class Idle<E extends PooledEvent>
+    {
+        private final PooledEvent[] events;
+        private int size = 0;
+        
+        Idle(int capacity)
+        {
+            this.events = new PooledEvent[capacity];
+        }
+        
+        @SuppressWarnings("unchecked")
+        @NullOr E pop()
+        {
+            if (size == 0) { return null; }
+            
+            E event = (E) events[--size];
+            events[size] = null;
+            return event;
+        }
+        
+        void push(E event)
+        {
+            if (size < events.length) { events[size++] = event; }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Publishes (snapshots of) events to reactive-streams subscribers.
+ *
+ * <p>The publisher is only registered as a listener while it has subscribers. Each
+ * subscriber has its own bounded ring buffer, which the listener fills on the calling
+ * thread, and which is drained on an executor according to the subscriber's demand.
+ * Subscribers are completed when the plugin is disabled.</p>
+ *
+ * @param <E>   event type
+ * @param <T>   published item type
+ */
+final class EventPublisher<E extends Event, T> implements Flow.Publisher<T>, EventConsumer<E>
+{
+    private static final Map<Plugin, Set<EventPublisher<?, ?>>> ACTIVE = new ConcurrentHashMap<>();
+    
+    private static Set<EventPublisher<?, ?>> active(Plugin plugin)
+    {
+        return ACTIVE.computeIfAbsent(plugin, EventPublisher::track);
+    }
+    
+    private static Set<EventPublisher<?, ?>> track(Plugin plugin)
+    {
+        EventsImpl.onDisable(plugin, () -> {
+            @NullOr Set<EventPublisher<?, ?>> publishers = ACTIVE.remove(plugin);
+            if (publishers != null) { publishers.forEach(EventPublisher::complete); }
+        });
+        return ConcurrentHashMap.newKeySet();
+    }
+    
+    private final Plugin plugin;
+    private final Class<E> eventType;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+    private final Function<? super E, ? extends T> snapshot;
+    private final int bufferSize;
+    private final StreamOverflow overflow;
+    private final Executor executor;
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private volatile StreamSubscription[] subscriptions = new EventPublisher.StreamSubscription[0];
+    
+    // Guarded by this
+    private @NullOr Subscription registration = null;
+    
+    EventPublisher(
+        Plugin plugin,
+        Class<E> eventType,
+        EventPriority priority,
+        boolean ignoreCancelled,
+        Function<? super E, ? extends T> snapshot,
+        int bufferSize,
+        StreamOverflow overflow
+    ) {
+        if (bufferSize <= 0) { throw new IllegalArgumentException("Invalid buffer size: " + bufferSize); }
+        
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.eventType = Objects.requireNonNull(eventType, "eventType");
+        this.priority = Objects.requireNonNull(priority, "priority");
+        this.ignoreCancelled = ignoreCancelled;
+        this.snapshot = Objects.requireNonNull(snapshot, "snapshot");
+        this.bufferSize = bufferSize;
+        this.overflow = Objects.requireNonNull(overflow, "overflow");
+        this.executor = OffloadingConsumer.defaultExecutor();
+    }
+    
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber)
+    {
+        Objects.requireNonNull(subscriber, "subscriber");
+        
+        StreamSubscription subscription = new StreamSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        
+        try { add(subscription); }
+        catch (RuntimeException e) { subscription.fail(e); } // E.g. the plugin isn't enabled
+    }
+    
+    @Override
+    public void accept(E event)
+    {
+        StreamSubscription[] current = subscriptions;
+        if (current.length == 0) { return; }
+        
+        // Snapshot once on the calling thread (which may safely read the event), not per subscriber
+        @NullOr T item = snapshot.apply(event);
+        if (item == null) { return; }
+        
+        if (item == event && event instanceof PooledEvent)
+        {
+            throw new IllegalStateException("Pooled events must be snapshotted to be streamed: " + event.getEventName());
+        }
+        
+        boolean block = overflow == StreamOverflow.BLOCK && event.isAsynchronous() && !Bukkit.isPrimaryThread();
+        for (StreamSubscription subscription : current) { subscription.offer(item, block); }
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private synchronized void add(StreamSubscription subscription)
+    {
+        if (subscription.cancelled) { return; }
+        
+        StreamSubscription[] updated = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        updated[subscriptions.length] = subscription;
+        subscriptions = updated;
+        
+        if (registration != null) { return; }
+        
+        try
+        {
+            registration = EventsImpl.registerEventConsumer(plugin, eventType, priority, ignoreCancelled, this);
+            active(plugin).add(this);
+        }
+        catch (RuntimeException e)
+        {
+            subscriptions = new EventPublisher.StreamSubscription[0];
+            throw e;
+        }
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private synchronized void remove(StreamSubscription subscription)
+    {
+        StreamSubscription[] current = subscriptions;
+        
+        for (int i = 0; i < current.length; i++)
+        {
+            if (current[i] != subscription) { continue; }
+            
+            StreamSubscription[] updated = new EventPublisher.StreamSubscription[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, i);
+            System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+            subscriptions = updated;
+            break;
+        }
+        
+        if (subscriptions.length > 0) { return; }
+        
+        // No subscribers left: stop listening until someone subscribes again
+        @NullOr Subscription registered = registration;
+        if (registered != null) { registered.close(); }
+        registration = null;
+        
+        @NullOr Set<EventPublisher<?, ?>> publishers = ACTIVE.get(plugin);
+        if (publishers != null) { publishers.remove(this); }
+    }
+    
+    private void complete()
+    {
+        for (StreamSubscription subscription : subscriptions) { subscription.complete(); }
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "EventPublisher{eventType=" + eventType.getName() + ", priority=" + priority + ", subscribers=" + subscriptions.length + "}";
+    }
+    
+    private final class StreamSubscription implements Flow.Subscription, Runnable
+    {
+        private final Flow.Subscriber<? super T> subscriber;
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        
+        // Guarded by lock
+        private final Object[] buffer = new Object[bufferSize];
+        private int head = 0;
+        private int size = 0;
+        
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        
+        private volatile boolean cancelled = false;
+        private volatile boolean completed = false;
+        private volatile @NullOr Throwable failure = null;
+        
+        StreamSubscription(Flow.Subscriber<? super T> subscriber)
+        {
+            this.subscriber = subscriber;
+        }
+        
+        void offer(T item, boolean block)
+        {
+            lock.lock();
+            
+            try
+            {
+                while (size == buffer.length)
+                {
+                    if (cancelled) { return; }
+                    
+                    if (overflow == StreamOverflow.DROP_OLDEST)
+                    {
+                        poll();
+                        break;
+                    }
+                    
+                    if (!block) { return; } // Dropping the newest
+                    
+                    try { notFull.await(); }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                
+                if (cancelled) { return; }
+                
+                buffer[(head + size) % buffer.length] = item;
+                size++;
+            }
+            finally { lock.unlock(); }
+            
+            drain();
+        }
+        
+        // Lock must be held
+        @SuppressWarnings("unchecked")
+        private @NullOr T poll()
+        {
+            if (size == 0) { return null; }
+            
+            T item = (T) buffer[head];
+            buffer[head] = null;
+            head = (head + 1) % buffer.length;
+            size--;
+            
+            notFull.signal();
+            return item;
+        }
+        
+        private @NullOr T next()
+        {
+            lock.lock();
+            try { return poll(); }
+            finally { lock.unlock(); }
+        }
+        
+        private boolean isEmpty()
+        {
+            lock.lock();
+            try { return size == 0; }
+            finally { lock.unlock(); }
+        }
+        
+        void complete()
+        {
+            completed = true;
+            drain();
+        }
+        
+        void fail(Throwable throwable)
+        {
+            failure = throwable;
+            drain();
+        }
+        
+        private void drain()
+        {
+            if (work.getAndIncrement() != 0) { return; } // Already draining
+            
+            try { executor.execute(this); }
+            catch (RejectedExecutionException e)
+            {
+                plugin.getLogger().log(Level.WARNING, "Event stream executor rejected delivery, cancelling subscriber: " + subscriber, e);
+                cancel();
+            }
+        }
+        
+        @Override
+        public void run()
+        {
+            // Only one thread runs this at a time, so the subscriber is never signalled concurrently
+            for (int missed = 1; missed != 0; missed = work.addAndGet(-missed))
+            {
+                if (cancelled) { return; }
+                
+                @NullOr Throwable error = failure;
+                if (error != null)
+                {
+                    terminate();
+                    subscriber.onError(error);
+                    return;
+                }
+                
+                long demand = requested.get();
+                long emitted = 0;
+                
+                while (emitted != demand)
+                {
+                    @NullOr T item = next();
+                    if (item == null) { break; }
+                    
+                    try { subscriber.onNext(item); }
+                    catch (Throwable throwable)
+                    {
+                        // Subscribers must not throw, but treat it as cancelling rather than breaking the stream
+                        plugin.getLogger().log(Level.WARNING, "Event stream subscriber threw, cancelling it: " + subscriber, throwable);
+                        cancel();
+                        return;
+                    }
+                    
+                    if (cancelled) { return; }
+                    emitted++;
+                }
+                
+                if (emitted > 0 && demand != Long.MAX_VALUE) { requested.addAndGet(-emitted); }
+                
+                if (completed && isEmpty())
+                {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+            }
+        }
+        
+        @Override
+        public void request(long n)
+        {
+            if (n <= 0)
+            {
+                fail(new IllegalArgumentException("Non-positive request: " + n)); // Rule 3.9
+                return;
+            }
+            
+            requested.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return (sum < 0) ? Long.MAX_VALUE : sum; // Overflow means unbounded demand
+            });
+            
+            drain();
+        }
+        
+        @Override
+        public void cancel()
+        {
+            terminate();
+        }
+        
+        private void terminate()
+        {
+            if (cancelled) { return; }
+            cancelled = true;
+            
+            lock.lock();
+            
+            try
+            {
+                Arrays.fill(buffer, null);
+                size = 0;
+                notFull.signalAll(); // Wake up blocked callers
+            }
+            finally { lock.unlock(); }
+            
+            EventPublisher.this.remove(this);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * Records events to an append-only log of memory-mapped segments, so that the event
+ * stream a server sees can be {@link EventReplayer replayed} elsewhere (for example,
+ * to reproduce a lag spike).
+ *
+ * <p>The recorder listens at {@link ListenerOrder#MONITOR} to each type that it has a codec
+ * for, including cancelled events, and records the time and outcome of every event. Events
+ * are encoded directly into the current segment on the thread calling them, so recording
+ * costs a lock and the codec's own work, and segments survive the process crashing. Events
+ * too large to fit in an empty segment are dropped.</p>
+ *
+ * <p>The next segment is created in the background while the current one fills up, so
+ * moving on to it is just a swap, and full segments are flushed to disk and unmapped in
+ * the background too.</p>
+ *
+ * <p>Closing the recorder stops listening then flushes the current segment to disk
+ * (deleting the unused next one). Recorders are closed when the plugin is disabled.</p>
+ *
+ * @see Events#record(Path, Collection)
+ */
+public final class EventRecorder implements Subscription
+{
+    static final int DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+    
+    private static final int MINIMUM_SEGMENT_BYTES = 4096;
+    
+    private static final Map<Plugin, Set<EventRecorder>> ACTIVE = new ConcurrentHashMap<>();
+    
+    private static Set<EventRecorder> track(Plugin plugin)
+    {
+        EventsImpl.onDisable(plugin, () -> {
+            @NullOr Set<EventRecorder> recorders = ACTIVE.remove(plugin);
+            if (recorders != null) { recorders.forEach(EventRecorder::close); }
+        });
+        return ConcurrentHashMap.newKeySet();
+    }
+    
+    static EventRecorder start(Plugin plugin, Path directory, Collection<? extends EventCodec<?>> codecs, int segmentBytes) throws IOException
+    {
+        Objects.requireNonNull(plugin, "plugin");
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(codecs, "codecs");
+        
+        if (segmentBytes < MINIMUM_SEGMENT_BYTES) { throw new IllegalArgumentException("Invalid segment size: " + segmentBytes); }
+        if (codecs.isEmpty() || codecs.size() > Short.MAX_VALUE) { throw new IllegalArgumentException("Invalid number of codecs: " + codecs.size()); }
+        
+        List<EventCodec<?>> ordered = new ArrayList<>(codecs.size());
+        List<String> types = new ArrayList<>(codecs.size());
+        int headerBytes = Integer.BYTES + Short.BYTES + Short.BYTES + Long.BYTES;
+        
+        for (EventCodec<?> codec : codecs)
+        {
+            String type = Objects.requireNonNull(codec, "codec").type().getName();
+            if (types.contains(type)) { throw new IllegalArgumentException("Duplicate codec for event type: " + type); }
+            
+            ordered.add(codec);
+            types.add(type);
+            headerBytes += Short.BYTES + type.getBytes(StandardCharsets.UTF_8).length;
+        }
+        
+        if (headerBytes > segmentBytes / 2)
+        {
+            throw new IllegalArgumentException("Segment size " + segmentBytes + " is too small for " + types.size() + " event types");
+        }
+        
+        Files.createDirectories(directory);
+        
+        if (!SegmentLog.segments(directory).isEmpty())
+        {
+            throw new FileAlreadyExistsException(directory.toString(), null, "Directory already contains recorded events");
+        }
+        
+        EventRecorder recorder = new EventRecorder(plugin, directory, types, segmentBytes);
+        
+        try
+        {
+            for (int i = 0; i < ordered.size(); i++) { recorder.listen((short) i, ordered.get(i)); }
+            ACTIVE.computeIfAbsent(plugin, EventRecorder::track).add(recorder);
+        }
+        catch (RuntimeException e)
+        {
+            recorder.close();
+            throw e;
+        }
+        
+        return recorder;
+    }
+    
+    private final SubscriptionGroup subscriptions = new SubscriptionGroup();
+    
+    private final Plugin plugin;
+    private final Path directory;
+    private final List<String> types;
+    private final int segmentBytes;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private final Executor executor;
+    
+    private volatile boolean active = true;
+    
+    // Guarded by this
+    private @NullOr MappedByteBuffer segment;
+    private @NullOr CompletableFuture<MappedByteBuffer> next;
+    private int segments = 1;
+    private long recorded = 0;
+    private long dropped = 0;
+    
+    private EventRecorder(Plugin plugin, Path directory, List<String> types, int segmentBytes) throws IOException
+    {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.types = List.copyOf(types);
+        this.segmentBytes = segmentBytes;
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.executor = OffloadingConsumer.defaultExecutor();
+        this.segment = SegmentLog.create(SegmentLog.segment(directory, 0), segmentBytes, startEpochMillis, this.types);
+        this.next = prepare(1);
+    }
+    
+    private CompletableFuture<MappedByteBuffer> prepare(int index)
+    {
+        Path path = SegmentLog.segment(directory, index);
+        
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try { return SegmentLog.create(path, segmentBytes, startEpochMillis, types); }
+            catch (IOException e) { throw new UncheckedIOException(e); }
+        }, executor);
+    }
+    
+    private void release(MappedByteBuffer buffer)
+    {
+        try { executor.execute(() -> SegmentLog.release(buffer)); }
+        catch (RejectedExecutionException e) { SegmentLog.release(buffer); }
+    }
+    
+    private <E extends Event> void listen(short type, EventCodec<E> codec)
+    {
+        subscriptions.add(EventsImpl.registerEventConsumer(
+            plugin, codec.type(), EventPriority.MONITOR, false, event -> record(type, codec, event)
+        ));
+    }
+    
+    private <E extends Event> void record(short type, EventCodec<E> codec, E event)
+    {
+        long nanos = System.nanoTime() - startNanos;
+        
+        byte flags = 0;
+        if (event instanceof Cancellable && ((Cancellable) event).isCancelled()) { flags |= SegmentLog.CANCELLED; }
+        if (event.isAsynchronous()) { flags |= SegmentLog.ASYNCHRONOUS; }
+        
+        synchronized (this)
+        {
+            for (boolean rolled = false; ; rolled = true)
+            {
+                @NullOr MappedByteBuffer buffer = segment;
+                if (buffer == null) { return; } // Closed
+                
+                int start = buffer.position();
+                
+                try
+                {
+                    if (buffer.remaining() < SegmentLog.RECORD_HEADER_BYTES) { throw new BufferOverflowException(); }
+                    
+                    buffer.position(start + SegmentLog.RECORD_HEADER_BYTES);
+                    codec.encode(event, buffer);
+                    
+                    buffer.putShort(start + SegmentLog.TYPE_OFFSET, type)
+                        .put(start + SegmentLog.FLAGS_OFFSET, flags)
+                        .putLong(start + SegmentLog.NANOS_OFFSET, nanos)
+                        .putInt(start, buffer.position() - start); // Length last: the record is now complete
+                    
+                    recorded++;
+                    return;
+                }
+                catch (BufferOverflowException e)
+                {
+                    clear(buffer, start);
+                    
+                    if (rolled) // Doesn't even fit in an empty segment
+                    {
+                        dropped++;
+                        return;
+                    }
+                    
+                    roll();
+                }
+                catch (RuntimeException e)
+                {
+                    clear(buffer, start);
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private static void clear(ByteBuffer buffer, int start)
+    {
+        for (int i = start; i < buffer.position(); i++) { buffer.put(i, (byte) 0); }
+        buffer.position(start);
+    }
+    
+    // Guarded by this
+    private void roll()
+    {
+        @NullOr MappedByteBuffer full = segment;
+        @NullOr CompletableFuture<MappedByteBuffer> prepared = next;
+        if (full == null || prepared == null) { return; } // Closed
+        
+        try
+        {
+            segment = prepared.join(); // Normally created long before the current segment fills up
+            segments++;
+            next = prepare(segments);
+            release(full);
+        }
+        catch (CompletionException | RejectedExecutionException e)
+        {
+            @NullOr Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+            plugin.getLogger().log(Level.SEVERE, "Could not create event log segment, stopping recording to " + directory, cause);
+            segment = full;
+            next = null;
+            close();
+        }
+    }
+    
+    /**
+     * Gets the directory containing the recorded segments.
+     *
+     * @return the recording directory
+     */
+    public Path directory()
+    {
+        return directory;
+    }
+    
+    /**
+     * Gets the number of events recorded so far.
+     *
+     * @return the number of recorded events
+     */
+    public synchronized long recorded()
+    {
+        return recorded;
+    }
+    
+    /**
+     * Gets the number of events dropped because their encoding exceeded the segment size.
+     *
+     * @return the number of dropped events
+     */
+    public synchronized long dropped()
+    {
+        return dropped;
+    }
+    
+    @Override
+    public boolean isActive()
+    {
+        return active;
+    }
+    
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            if (!active) { return; }
+            active = false;
+        }
+        
+        subscriptions.close();
+        
+        @NullOr MappedByteBuffer closing;
+        @NullOr CompletableFuture<MappedByteBuffer> unused;
+        Path unusedPath;
+        
+        synchronized (this)
+        {
+            closing = segment;
+            unused = next;
+            unusedPath = SegmentLog.segment(directory, segments);
+            segment = null;
+            next = null;
+        }
+        
+        if (closing != null) { SegmentLog.release(closing); }
+        if (unused != null) { unused.thenAccept(buffer -> discard(buffer, unusedPath)); }
+        
+        @NullOr Set<EventRecorder> recorders = ACTIVE.get(plugin);
+        if (recorders != null) { recorders.remove(this); }
+    }
+    
+    private void discard(MappedByteBuffer buffer, Path path)
+    {
+        SegmentLog.release(buffer);
+        
+        try { Files.deleteIfExists(path); }
+        catch (IOException e) { plugin.getLogger().log(Level.WARNING, "Could not delete unused event log segment: " + path, e); }
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "EventRecorder{directory=" + directory + ", types=" + types.size() + ", recorded=" + recorded() + "}";
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays events {@link EventRecorder recorded} to a directory by decoding
+ * each one and calling it through a dispatcher, in the order they were recorded.
+ *
+ * <p>Replaying happens entirely on the calling thread, including asynchronous
+ * events, so the dispatcher is typically backed by a stub server rather than
+ * a live one.</p>
+ */
+public final class EventReplayer
+{
+    private EventReplayer() { throw new UnsupportedOperationException(); }
+    
+    /**
+     * How quickly events are replayed.
+     */
+    public enum Pace
+    {
+        /**
+         * Calls events with the same gaps between them as when they were recorded.
+         */
+        ORIGINAL,
+        
+        /**
+         * Calls events back to back, as fast as possible.
+         */
+        MAXIMUM
+    }
+    
+    /**
+     * Replays the recording in the directory.
+     *
+     * @param directory     the recording directory
+     * @param codecs        codecs decoding the recorded events (events of other types are skipped)
+     * @param dispatcher    calls the decoded events
+     * @param pace          how quickly events are replayed
+     *
+     * @return a summary of the replay
+     *
+     * @throws IOException if the recording couldn't be read
+     */
+    public static ReplayReport replay(
+        Path directory,
+        Collection<? extends EventCodec<?>> codecs,
+        EventDispatcher dispatcher,
+        Pace pace
+    ) throws IOException {
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(codecs, "codecs");
+        Objects.requireNonNull(dispatcher, "dispatcher");
+        Objects.requireNonNull(pace, "pace");
+        
+        Map<String, EventCodec<?>> codecsByType = new HashMap<>();
+        for (EventCodec<?> codec : codecs) { codecsByType.put(codec.type().getName(), codec); }
+        
+        long replayed = 0;
+        long skipped = 0;
+        long diverged = 0;
+        
+        long started = System.nanoTime();
+        long firstRecorded = -1;
+        
+        for (Path path : SegmentLog.segments(directory))
+        {
+            MappedByteBuffer segment = SegmentLog.open(path);
+            List<String> types = SegmentLog.types(segment);
+            
+            EventCodec<?>[] decoders = new EventCodec<?>[types.size()];
+            for (int i = 0; i < decoders.length; i++) { decoders[i] = codecsByType.get(types.get(i)); }
+            
+            for (int length; (length = SegmentLog.next(segment)) > 0; segment.position(segment.position() + length))
+            {
+                int start = segment.position();
+                
+                int type = segment.getShort(start + SegmentLog.TYPE_OFFSET);
+                @NullOr EventCodec<?> codec = (type >= 0 && type < decoders.length) ? decoders[type] : null;
+                
+                if (codec == null)
+                {
+                    skipped++;
+                    continue;
+                }
+                
+                long recorded = segment.getLong(start + SegmentLog.NANOS_OFFSET);
+                
+                if (pace == Pace.ORIGINAL)
+                {
+                    if (firstRecorded < 0) { firstRecorded = recorded; }
+                    awaitNanos(started + (recorded - firstRecorded));
+                }
+                
+                ByteBuffer encoded = segment.duplicate();
+                encoded.position(start + SegmentLog.RECORD_HEADER_BYTES).limit(start + length);
+                
+                boolean cancelled = call(dispatcher, codec, encoded.slice());
+                boolean wasCancelled = (segment.get(start + SegmentLog.FLAGS_OFFSET) & SegmentLog.CANCELLED) != 0;
+                
+                replayed++;
+                if (cancelled != wasCancelled) { diverged++; }
+            }
+        }
+        
+        return new ReplayReport(replayed, skipped, diverged, Duration.ofNanos(System.nanoTime() - started));
+    }
+    
+    private static <E extends Event> boolean call(EventDispatcher dispatcher, EventCodec<E> codec, ByteBuffer encoded)
+    {
+        E event = dispatcher.call(Objects.requireNonNull(codec.decode(encoded), "decoded event"));
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+    
+    private static void awaitNanos(long deadline)
+    {
+        for (long remaining; (remaining = deadline - System.nanoTime()) > 0; ) { LockSupport.parkNanos(remaining); }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+
+import java.util.Objects;
+
+/**
+ * Checks whether events are instances of a registered event type.
+ *
+ * <p>Bukkit delivers every event sharing a handler list to each registered
+ * executor, so a listener for a subtype (like {@code EntityDamageByEntityEvent})
+ * also receives its siblings. Events of exactly the registered type pass with a
+ * single reference comparison, and any other runtime class is checked once and
+ * then remembered.</p>
+ */
+final class EventTypeFilter
+{
+    private static final ClassValue<EventTypeFilter> FILTERS = new ClassValue<>()
+    {
+        @Override
+        protected EventTypeFilter computeValue(Class<?> type)
+        {
+            return new EventTypeFilter(type.asSubclass(Event.class));
+        }
+    };
+    
+    /**
+     * Gets the shared filter for the provided event type.
+     *
+     * @param type  the event type
+     *
+     * @return a filter that accepts instances of the event type
+     */
+    static EventTypeFilter of(Class<? extends Event> type)
+    {
+        return FILTERS.get(Objects.requireNonNull(type, "type"));
+    }
+    
+    private final Class<? extends Event> type;
+    private final ClassValue<Boolean> accepted;
+    
+    private EventTypeFilter(Class<? extends Event> type)
+    {
+        this.type = type;
+        this.accepted = new ClassValue<>()
+        {
+            @Override
+            protected Boolean computeValue(Class<?> runtime) { return type.isAssignableFrom(runtime); }
+        };
+    }
+    
+    /**
+     * Checks whether the provided event is an instance of the event type.
+     *
+     * @param event     the event
+     *
+     * @return {@code true} if the event is accepted
+     */
+    boolean accepts(Event event)
+    {
+        Class<?> runtime = event.getClass();
+        return runtime == type || accepted.get(runtime);
+    }
+}
@@ -12,10 +12,23 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Utilities for calling and registering Bukkit events.
+ *
+ * <p><b>Note:</b> listeners are registered directly to their handler lists (mirroring the
+ * plugin manager) so that each {@link Subscription} knows exactly what it owns. As a result,
+ * server-specific additions to the plugin manager's {@code registerEvent()} (such as extra
+ * timings) don't apply to them.</p>
  */
 @FunctionalInterface
 public interface Events extends EventDispatcher
@@ -24,14 +37,15 @@ public interface Events extends EventDispatcher
      * Creates a new {@code Events} instance by resolving plugin classes on the current call stack.
      * The first plugin found on the call stack will be used for event registration.
      *
-     * <p><b>Note:</b> a stacktrace will be generated every time this method is invoked, so consider
-     * reusing instances rather than constantly re-resolving them.</p>
+     * <p><b>Note:</b> the call stack is walked lazily and stops at the first plugin class, and plugins
+     * are cached per class, so this is cheap enough to call from helper code. Reusing instances is
+     * still cheaper than re-resolving them.</p>
      *
      * @return a new instance that registers events with the plugin resolved from the current call stack
      */
     static Events resolve()
     {
-        Plugin plugin = EventsImpl.resolvePluginByStackTrace();
+        Plugin plugin = EventsImpl.resolvePluginByCallStack();
         return () -> plugin;
     }
     
@@ -42,7 +56,22 @@ public interface Events extends EventDispatcher
      */
     static EventDispatcher dispatcher()
     {
-        return EventsImpl::dispatch;
+        return EventsImpl.DISPATCHER;
+    }
+    
+    /**
+     * Checks whether any listeners are registered for the provided event type. The event's
+     * handler list is only resolved once per type, so this costs an array length check.
+     *
+     * @param event     the event type
+     *
+     * @return {@code true} if the event type's handler list has any registered listeners
+     *
+     * @throws org.bukkit.plugin.IllegalPluginAccessException if the event type doesn't have a handler list
+     */
+    static boolean hasListeners(Class<? extends Event> event)
+    {
+        return HandlerLists.of(event).getRegisteredListeners().length > 0;
     }
     
     /**
@@ -55,9 +84,21 @@ public interface Events extends EventDispatcher
     @Override // documented in supertype
     default <E extends Event> E call(E event)
     {
-        Objects.requireNonNull(event, "event");
-        plugin().getServer().getPluginManager().callEvent(event);
-        return event;
+        return EventsImpl.dispatch(plugin().getServer().getPluginManager(), event);
+    }
+    
+    @Override // documented in supertype
+    default int callAll(Collection<? extends Event> events)
+    {
+        Objects.requireNonNull(events, "events");
+        return BulkDispatch.callAll(plugin().getServer(), events.iterator());
+    }
+    
+    @Override // documented in supertype
+    default int callAll(Stream<? extends Event> events)
+    {
+        Objects.requireNonNull(events, "events");
+        return BulkDispatch.callAll(plugin().getServer(), events.iterator());
     }
     
     /**
@@ -67,15 +108,29 @@ public interface Events extends EventDispatcher
      * @param <L>       specific listener type
      *
      * @return the registered listener
+     *
+     * @see #subscribe(Listener)
      */
     @SuppressWarnings("UnusedReturnValue")
     default <L extends Listener> L register(L listener)
     {
-        Objects.requireNonNull(listener, "listener");
-        EventsImpl.registerMethods(plugin(), listener);
+        subscribe(listener);
         return listener;
     }
     
+    /**
+     * Registers the provided event listener.
+     *
+     * @param listener  the event listener
+     *
+     * @return a subscription owning every listener method that was registered
+     */
+    default Subscription subscribe(Listener listener)
+    {
+        Objects.requireNonNull(listener, "listener");
+        return EventsImpl.registerMethods(plugin(), listener);
+    }
+    
     /**
      * Registers the provided event consumer.
      *
@@ -85,11 +140,13 @@ public interface Events extends EventDispatcher
      * @param listener      the event handler
      * @param <E>           event type
      *
+     * @return a subscription owning the registered consumer
+     *
      * @see EventHandler#ignoreCancelled()
      */
-    default <E extends Event> void on(Class<E> event, ListenerOrder order, CancellationPolicy cancelled, EventConsumer<E> listener)
+    default <E extends Event> Subscription on(Class<E> event, ListenerOrder order, CancellationPolicy cancelled, EventConsumer<E> listener)
     {
-        EventsImpl.registerEventConsumer(plugin(), event, order.priority(), cancelled.ignoresCancelledEvents(), listener);
+        return EventsImpl.registerEventConsumer(plugin(), event, order.priority(), cancelled.ignoresCancelledEvents(), listener);
     }
     
     /**
@@ -99,10 +156,12 @@ public interface Events extends EventDispatcher
      * @param order     the priority
      * @param listener  the event handler
      * @param <E>       event type
+     *
+     * @return a subscription owning the registered consumer
      */
-    default <E extends Event> void on(Class<E> event, ListenerOrder order, EventConsumer<E> listener)
+    default <E extends Event> Subscription on(Class<E> event, ListenerOrder order, EventConsumer<E> listener)
     {
-        on(event, order, CancellationPolicy.ACCEPT, listener);
+        return on(event, order, CancellationPolicy.ACCEPT, listener);
     }
     
     /**
@@ -111,10 +170,176 @@ public interface Events extends EventDispatcher
      * @param event     the event type
      * @param listener  the event handler
      * @param <E>       event type
+     *
+     * @return a subscription owning the registered consumer
+     */
+    default <E extends Event> Subscription on(Class<E> event, EventConsumer<E> listener)
+    {
+        return on(event, ListenerOrder.NORMAL, listener);
+    }
+    
+    /**
+     * Registers listeners in a batch. Every listener registered on the current thread while
+     * {@code registrations} runs, whether via this instance or any other, is collected and then
+     * committed all at once: listeners are grouped by handler list, and each affected handler
+     * list is baked exactly once. If {@code registrations} throws, nothing is registered.
+     *
+     * <p>Batches started within another batch join it, and their listeners are committed when
+     * the outermost batch completes (so nested reports never include bakes).</p>
+     *
+     * @param registrations     registers listeners
+     *
+     * @return a summary of the committed batch
+     */
+    default BatchReport batch(Consumer<? super Events> registrations)
+    {
+        Objects.requireNonNull(registrations, "registrations");
+        return RegistrationBatch.run(this, registrations);
+    }
+    
+    /**
+     * Gets the plugin's opt-in listener metrics, which record per-listener invocation counts,
+     * timing percentiles, and cancellations for listeners registered while they're enabled.
+     * Metrics are shared by every {@code Events} instance for the same plugin.
+     *
+     * @return the plugin's listener metrics
+     */
+    default EventMetrics metrics()
+    {
+        return ListenerMetrics.of(plugin());
+    }
+    
+    /**
+     * Gets the plugin's opt-in circuit breakers, which temporarily suspend faulting or slow
+     * listeners registered while they're enabled. Circuit breakers are shared by every
+     * {@code Events} instance for the same plugin.
+     *
+     * @return the plugin's circuit breakers
+     */
+    default CircuitBreakers circuitBreakers()
+    {
+        return ListenerCircuitBreakers.of(plugin());
+    }
+    
+    /**
+     * Gets the plugin's opt-in listener multiplexing, which makes listeners registered while
+     * it's enabled share registrations in Bukkit's handler lists. Multiplexing is shared by
+     * every {@code Events} instance for the same plugin.
+     *
+     * <p><b>Note:</b> multiplexed listeners run at their shared registration's position within
+     * their {@link ListenerOrder} rather than at their own registration order, so their order
+     * relative to listeners that aren't multiplexed (at the same {@code ListenerOrder}) changes.
+     * See {@link Multiplexing} for details.</p>
+     *
+     * @return the plugin's listener multiplexing
+     */
+    default Multiplexing multiplexing()
+    {
+        return ListenerMultiplexer.of(plugin());
+    }
+    
+    /**
+     * Streams snapshots of events to reactive-streams subscribers, buffering up to 256 snapshots
+     * per subscriber and discarding the oldest snapshots once a subscriber's buffer is full.
+     *
+     * <p>Subscribers are signalled on another thread, after events have been called, so the
+     * snapshot should copy whatever subscribers need into an immutable value rather than
+     * return the (mutable, and possibly {@link PooledEvent pooled}) event itself.</p>
+     *
+     * @param event         the event type
+     * @param order         the priority
+     * @param cancelled     whether to ignore cancelled events or not
+     * @param snapshot      creates the published item for an event (events with {@code null} snapshots are skipped)
+     * @param <E>           event type
+     * @param <T>           published item type
+     *
+     * @return a publisher of event snapshots
+     *
+     * @see #stream(Class, ListenerOrder, CancellationPolicy, Function, int, StreamOverflow)
+     */
+    default <E extends Event, T> Flow.Publisher<T> stream(
+        Class<E> event,
+        ListenerOrder order,
+        CancellationPolicy cancelled,
+        Function<? super E, ? extends T> snapshot
+    ) {
+        return stream(event, order, cancelled, snapshot, 256, StreamOverflow.DROP_OLDEST);
+    }
+    
+    /**
+     * Streams snapshots of events to reactive-streams subscribers. The publisher only
+     * listens for events while it has subscribers, and completes them when the plugin
+     * is disabled.
+     *
+     * <p>Snapshots are taken once per event on the thread calling it (so they may safely read
+     * the event and server state), then buffered per subscriber. Subscribers are signalled on
+     * another thread according to their demand, so slow subscribers never hold up the thread
+     * calling the event unless they {@link StreamOverflow#BLOCK block} asynchronous events.
+     * Like other deferred listeners, subscribers can't affect the outcome of events. Since
+     * they also run on another thread, the snapshot should be an immutable copy of whatever
+     * subscribers need rather than the (mutable) event itself, which is published as is.</p>
+     *
+     * @param event         the event type
+     * @param order         the priority
+     * @param cancelled     whether to ignore cancelled events or not
+     * @param snapshot      creates the published item for an event (events with {@code null} snapshots are skipped)
+     * @param bufferSize    number of items buffered per subscriber
+     * @param overflow      what to do with items when a subscriber's buffer is full
+     * @param <E>           event type
+     * @param <T>           published item type
+     *
+     * @return a publisher of event snapshots
+     *
+     * @throws IllegalArgumentException if {@code bufferSize} isn't positive
+     */
+    default <E extends Event, T> Flow.Publisher<T> stream(
+        Class<E> event,
+        ListenerOrder order,
+        CancellationPolicy cancelled,
+        Function<? super E, ? extends T> snapshot,
+        int bufferSize,
+        StreamOverflow overflow
+    ) {
+        Objects.requireNonNull(order, "order");
+        Objects.requireNonNull(cancelled, "cancelled");
+        return new EventPublisher<>(plugin(), event, order.priority(), cancelled.ignoresCancelledEvents(), snapshot, bufferSize, overflow);
+    }
+    
+    /**
+     * Starts recording events to 16 MiB segments in the directory.
+     *
+     * @param directory     the recording directory (created if it doesn't exist)
+     * @param codecs        codecs for each recorded event type
+     *
+     * @return the started recorder
+     *
+     * @throws IOException if the directory couldn't be created or already contains a recording
+     *
+     * @see #record(Path, Collection, int)
      */
-    default <E extends Event> void on(Class<E> event, EventConsumer<E> listener)
+    default EventRecorder record(Path directory, Collection<? extends EventCodec<?>> codecs) throws IOException
     {
-        on(event, ListenerOrder.NORMAL, listener);
+        return record(directory, codecs, EventRecorder.DEFAULT_SEGMENT_BYTES);
+    }
+    
+    /**
+     * Starts recording events to the directory, so that they can later be
+     * {@link EventReplayer#replay(Path, Collection, EventDispatcher, EventReplayer.Pace) replayed}.
+     * Every type with a codec is recorded at {@link ListenerOrder#MONITOR} priority
+     * (cancelled events included) until the recorder is closed.
+     *
+     * @param directory         the recording directory (created if it doesn't exist)
+     * @param codecs            codecs for each recorded event type
+     * @param segmentBytes      size of each memory-mapped segment
+     *
+     * @return the started recorder
+     *
+     * @throws IOException if the directory couldn't be created or already contains a recording
+     * @throws IllegalArgumentException if there are no codecs, duplicate codecs, or the segment size is less than 4 KiB
+     */
+    default EventRecorder record(Path directory, Collection<? extends EventCodec<?>> codecs, int segmentBytes) throws IOException
+    {
+        return EventRecorder.start(plugin(), directory, codecs, segmentBytes);
     }
     
     /**
@@ -143,7 +368,7 @@ public interface Events extends EventDispatcher
          * @return the builder (for method chaining)
          */
         Builder<E> priority(ListenerOrder order);
-    
+        
         /**
          * Sets whether cancelled events are ignored by the listener or not.
          *
@@ -154,13 +379,195 @@ public interface Events extends EventDispatcher
          * @see EventHandler#ignoreCancelled()
          */
         Builder<E> cancelled(CancellationPolicy policy);
-    
+        
+        /**
+         * Coalesces events by key, so that the listener only receives the latest event
+         * per key each tick. For example, coalescing {@code PlayerMoveEvent} by player
+         * UUID delivers at most one move per player per tick.
+         *
+         * <p>Coalesced events are delivered together once per tick on the main thread,
+         * <i>after</i> they've already been called. The listener therefore can't affect
+         * their outcome (e.g. cancelling them does nothing), so coalescing is best suited
+         * to {@link ListenerOrder#MONITOR monitoring} listeners. Events that are cancelled
+         * by the time they're delivered are skipped if the listener rejects cancelled events.</p>
+         *
+         * <p>Listener metrics and circuit breakers apply to delivering the coalesced events,
+         * repeated exceptions are suppressed like those of any other listener, and events that
+         * are still pending once the listener's subscription is closed are discarded.</p>
+         *
+         * @param key   gets the key that events are coalesced by
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if the event type is {@link PooledEvent pooled}
+         */
+        Builder<E> coalesce(Function<? super E, ?> key);
+        
+        /**
+         * Samples events, so that the listener only receives the specified number of events
+         * out of every window of events. For example, sampling {@code 1} out of {@code 100}
+         * delivers every hundredth event.
+         *
+         * <p>Sampling happens before the listener is invoked and doesn't lock,
+         * so it's also suitable for asynchronous events.</p>
+         *
+         * @param events    number of events to deliver per window
+         * @param outOf     size of the window
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if {@code events} isn't between {@code 1} and {@code outOf}
+         */
+        Builder<E> sample(int events, int outOf);
+        
+        /**
+         * Throttles events by key, so that the listener receives at most {@code maxPerTick}
+         * events per key each server tick. Excess events are skipped (not delayed).
+         *
+         * <p>Throttling happens before the listener is invoked (after {@link #sample(int, int)
+         * sampling}, if any) and doesn't lock, so it's also suitable for asynchronous events.</p>
+         *
+         * @param key           gets the key that events are throttled by
+         * @param maxPerTick    the maximum number of events per key each tick
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if {@code maxPerTick} isn't positive
+         */
+        Builder<E> throttle(Function<? super E, ?> key, int maxPerTick);
+        
+        /**
+         * Throttles events, so that the listener receives at most {@code maxPerTick}
+         * events each server tick. Excess events are skipped (not delayed).
+         *
+         * @param maxPerTick    the maximum number of events each tick
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if {@code maxPerTick} isn't positive
+         *
+         * @see #throttle(Function, int)
+         */
+        default Builder<E> throttle(int maxPerTick) { return throttle(event -> Boolean.TRUE, maxPerTick); }
+        
+        /**
+         * Offloads the listener to another thread, so that slow (e.g. blocking I/O) listeners
+         * don't hold up the thread calling the event. Events with equal keys (such as the same
+         * player's UUID) are handled in the order they were called, while events with different
+         * keys may be handled in parallel.
+         *
+         * <p>Offloaded events are handled <i>after</i> they've been called, so the listener
+         * can't affect their outcome (e.g. cancelling them does nothing). The listener also
+         * runs off the main thread, so it must not use Bukkit APIs that aren't thread-safe.
+         * Offloading is therefore best suited to asynchronous events and monitoring listeners.</p>
+         *
+         * <p>Listener metrics and circuit breakers apply to the offloaded handling rather
+         * than to queuing the event, and events that are still queued once the listener's
+         * subscription is closed are discarded.</p>
+         *
+         * @param key       gets the key that orders events
+         * @param policy    the offload policy
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if the event type is {@link PooledEvent pooled}
+         */
+        Builder<E> offload(Function<? super E, ?> key, OffloadPolicy policy);
+        
+        /**
+         * Offloads the listener to another thread using the {@link OffloadPolicy#defaults() default policy}.
+         *
+         * @param key   gets the key that orders events
+         *
+         * @return the builder (for method chaining)
+         *
+         * @see #offload(Function, OffloadPolicy)
+         */
+        default Builder<E> offload(Function<? super E, ?> key) { return offload(key, OffloadPolicy.defaults()); }
+        
+        /**
+         * Closes the listener's subscription after the provided number of server ticks.
+         *
+         * <p>Expiry is driven by a timing wheel shared by all of the plugin's expiring
+         * listeners and advanced once per tick, so expiring listeners don't each need
+         * their own scheduler task. Subscriptions closed early stop waiting to expire.</p>
+         *
+         * @param ticks     number of ticks until expiry
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if {@code ticks} isn't positive
+         */
+        Builder<E> expireAfterTicks(long ticks);
+        
+        /**
+         * Closes the listener's subscription after the provided duration,
+         * rounded up to whole server ticks (assuming 20 ticks per second).
+         *
+         * @param duration  duration until expiry
+         *
+         * @return the builder (for method chaining)
+         *
+         * @throws IllegalArgumentException if {@code duration} isn't positive
+         *
+         * @see #expireAfterTicks(long)
+         */
+        default Builder<E> expireAfter(Duration duration)
+        {
+            Objects.requireNonNull(duration, "duration");
+            if (duration.isNegative() || duration.isZero()) { throw new IllegalArgumentException("Invalid duration: " + duration); }
+            
+            long millisPerTick = 50;
+            long ticks = (duration.toMillis() + millisPerTick - 1) / millisPerTick;
+            return expireAfterTicks(Math.max(1, ticks));
+        }
+        
+        /**
+         * Closes the listener's subscription once it has handled a single event,
+         * such as when waiting for a player's next chat message. Events skipped
+         * beforehand (e.g. by {@link #throttle(Function, int) throttling}) don't count.
+         *
+         * @return the builder (for method chaining)
+         */
+        Builder<E> once();
+        
         /**
          * Registers the provided listener with the builder's previously specified settings.
          *
          * @param listener  event consumer
+         *
+         * @return a subscription owning the registered consumer
+         */
+        Subscription listener(EventConsumer<E> listener);
+        
+        /**
+         * Registers the provided listener for events whose key equals the provided key,
+         * such as a player's UUID. For example:
+         *
+         * <pre>{@code
+         * events.on(PlayerInteractEvent.class)
+         *     .keyedBy(event -> event.getPlayer().getUniqueId(), uuid, event -> ...);
+         * }</pre>
+         *
+         * <p>Keyed listeners that share the builder's settings and the <i>same</i> key
+         * function instance also share a single registered listener fronting a hash index,
+         * so each event costs one key lookup instead of a key comparison per listener.
+         * Reuse the key function (e.g. store it in a constant) to benefit from this.</p>
+         *
+         * <p>Exceptions thrown by a keyed listener are reported against that listener, and
+         * don't prevent other listeners with the same key from running. However, {@link
+         * Events#metrics() metrics} and {@link Events#circuitBreakers() circuit
+         * breakers} see the shared registered listener, so they apply to all of its keyed
+         * listeners together.</p>
+         *
+         * @param key       gets the key of an event (events with {@code null} keys are skipped)
+         * @param value     the key to listen for
+         * @param listener  event consumer
+         * @param <K>       key type
+         *
+         * @return a subscription owning only this listener
          */
-        void listener(EventConsumer<E> listener);
+        <K> Subscription keyedBy(Function<? super E, ? extends K> key, K value, EventConsumer<E> listener);
         
         /**
          * Sets the priority to {@link ListenerOrder#FIRST}, which gets called first.
@@ -7,35 +7,34 @@
  */
 package community.leaf.eventful.bukkit;
 
-import community.leaf.eventful.bukkit.annotations.EventListener;
-import community.leaf.eventful.bukkit.annotations.CancelledEvents;
 import community.leaf.eventful.bukkit.events.UncaughtEventExceptionEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.Warning;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
-import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.AuthorNagException;
 import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.TimedRegisteredListener;
 import org.bukkit.plugin.java.JavaPlugin;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.lang.annotation.Annotation;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.LinkedHashSet;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 final class EventsImpl
@@ -44,53 +43,180 @@ final class EventsImpl
     
     private static final String PACKAGE = EventsImpl.class.getPackageName();
     
-    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
     
-    static JavaPlugin resolvePluginByStackTrace()
+    private static final ClassValue<Optional<JavaPlugin>> PROVIDING_PLUGINS = new ClassValue<>()
     {
-        for (StackTraceElement element : Thread.currentThread().getStackTrace())
+        @Override
+        protected Optional<JavaPlugin> computeValue(Class<?> clazz)
         {
-            String name = element.getClassName();
-            
-            if (element.isNativeMethod()) { continue; }
-            if (name.startsWith("java.")) { continue; }
-            if (name.startsWith(PACKAGE)) { continue; }
-            
-            try { return JavaPlugin.getProvidingPlugin(Class.forName(element.getClassName())); }
-            catch (Exception ignored) {}
+            // Not provided by a plugin (cached). If the providing plugin simply isn't initialized yet,
+            // getProvidingPlugin() throws IllegalStateException instead, which isn't cached.
+            try { return Optional.of(JavaPlugin.getProvidingPlugin(clazz)); }
+            catch (IllegalArgumentException ignored) { return Optional.empty(); }
         }
-        
-        throw new IllegalStateException("Unable to resolve plugin (no plugin class found in stack trace)");
+    };
+    
+    private static Optional<JavaPlugin> providingPlugin(Class<?> clazz)
+    {
+        try { return PROVIDING_PLUGINS.get(clazz); }
+        catch (IllegalStateException ignored) { return Optional.empty(); }
+    }
+    
+    static JavaPlugin resolvePluginByCallStack()
+    {
+        return STACK_WALKER.walk(frames ->
+            frames.map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(clazz -> !clazz.getName().startsWith(PACKAGE))
+                .flatMap(clazz -> providingPlugin(clazz).stream())
+                .findFirst()
+        )
+        .orElseThrow(() -> new IllegalStateException("Unable to resolve plugin (no plugin class found on call stack)"));
     }
     
     static <E extends Event> E dispatch(E event)
+    {
+        return dispatch(Bukkit.getPluginManager(), event);
+    }
+    
+    static <E extends Event> E dispatch(PluginManager manager, E event)
     {
         Objects.requireNonNull(event, "event");
-        Bukkit.getPluginManager().callEvent(event);
+        FlightRecording.dispatch(manager, event);
         return event;
     }
     
-    private static EventExecutor handle(ExceptionalExecutor executor)
+    static final EventDispatcher DISPATCHER = new EventDispatcher()
     {
+        @Override
+        public <E extends Event> E call(E event)
+        {
+            return dispatch(event);
+        }
+        
+        @Override
+        public int callAll(Collection<? extends Event> events)
+        {
+            Objects.requireNonNull(events, "events");
+            return BulkDispatch.callAll(Bukkit.getServer(), events.iterator());
+        }
+        
+        @Override
+        public int callAll(Stream<? extends Event> events)
+        {
+            Objects.requireNonNull(events, "events");
+            return BulkDispatch.callAll(Bukkit.getServer(), events.iterator());
+        }
+    };
+    
+    /**
+     * Wraps the decorated executor so that it's only invoked with events that are instances of the
+     * registered type (Bukkit also delivers siblings sharing the handler list) and that pass the gate.
+     * Everything decorating the executor therefore only sees events actually handled by the listener.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Event> EventExecutor handle(
+        Plugin plugin,
+        Listener registered,
+        Class<E> eventType,
+        @NullOr ListenerMethod method,
+        EventPriority priority,
+        @NullOr Predicate<? super E> gate,
+        ExceptionalExecutor executor
+    ) {
+        EventTypeFilter filter = EventTypeFilter.of(eventType);
+        ExceptionGuard guard = new ExceptionGuard(plugin, registered);
+        FlightRecording.Site site = new FlightRecording.Site(plugin, registered, (method == null) ? null : method.signature(), priority);
+        
         return (listener, event) ->
         {
-            try { executor.execute(listener, event); }
-            catch (Error error) { throw error; } // Rethrow errors
-            catch (Throwable uncaught)
+            if (!filter.accepts(event)) { return; }
+            
+            try { if (gate != null && !gate.test((E) event)) { return; } }
+            catch (RuntimeException thrown)
             {
-                int handlers = UncaughtEventExceptionEvent.getHandlerList().getRegisteredListeners().length;
-                if (handlers <= 0 || event instanceof UncaughtEventExceptionEvent) { throw new EventException(uncaught); }
-                dispatch(new UncaughtEventExceptionEvent(event, listener, uncaught));
+                uncaught(plugin, registered, guard, listener, event, thrown);
+                return;
             }
+            
+            FlightRecording.@NullOr Invocation invocation = site.begin(event);
+            @NullOr Throwable uncaught = null;
+            
+            try { executor.execute(listener, event); }
+            catch (Throwable thrown) { uncaught = thrown; }
+            
+            site.end(invocation, event); // Before handling the exception, so that it isn't included in the duration
+            if (uncaught != null) { uncaught(plugin, registered, guard, listener, event, uncaught); }
         };
     }
     
+    private static void uncaught(
+        Plugin plugin,
+        Listener registered,
+        ExceptionGuard guard,
+        Listener listener,
+        Event event,
+        Throwable uncaught
+    ) throws EventException {
+        FlightRecording.uncaught(plugin, registered, event, uncaught);
+        
+        if (uncaught instanceof Error) { throw (Error) uncaught; } // Rethrow errors
+        if (event instanceof UncaughtEventExceptionEvent) { throw new EventException(uncaught); }
+        if (!guard.admit(event, uncaught)) { return; } // Suppressed (reported later)
+        
+        int handlers = UncaughtEventExceptionEvent.getHandlerList().getRegisteredListeners().length;
+        if (handlers <= 0) { throw new EventException(uncaught); }
+        dispatch(new UncaughtEventExceptionEvent(event, listener, uncaught));
+    }
+    
+    /**
+     * Handles an exception thrown by a listener outside of Bukkit's dispatch (like {@link
+     * #uncaught(Plugin, Listener, Event, Throwable)}), unless the guard suppresses it.
+     */
+    static void uncaught(Plugin plugin, Listener listener, ExceptionGuard guard, Event event, Throwable uncaught)
+    {
+        if (guard.admit(event, uncaught)) { uncaught(plugin, listener, event, uncaught); }
+        else { FlightRecording.uncaught(plugin, listener, event, uncaught); } // Suppressed (reported later)
+    }
+    
+    /**
+     * Handles an exception thrown by a listener outside of Bukkit's dispatch (such as when
+     * delivering deferred events), where there's no plugin manager to log it.
+     */
+    static void uncaught(Plugin plugin, Listener listener, Event event, Throwable uncaught)
+    {
+        FlightRecording.uncaught(plugin, listener, event, uncaught);
+        
+        int handlers = UncaughtEventExceptionEvent.getHandlerList().getRegisteredListeners().length;
+        
+        // The uncaught event inherits the original event's synchronicity, so it can only be called from a matching thread
+        if (handlers > 0 && !(event instanceof UncaughtEventExceptionEvent) && event.isAsynchronous() != Bukkit.isPrimaryThread())
+        {
+            dispatch(new UncaughtEventExceptionEvent(event, listener, uncaught));
+            return;
+        }
+        
+        plugin.getLogger().log(
+            Level.SEVERE,
+            "Could not pass event " + event.getEventName() + " to " + plugin.getDescription().getFullName(),
+            uncaught
+        );
+    }
+    
+    /**
+     * Registers the executor directly to the event's handler list (mirroring Bukkit's plugin manager),
+     * so that the subscription knows exactly which registered listener it owns.
+     */
     private static <E extends Event> void register(
+        ListenerSubscription subscription,
         Plugin plugin,
         Class<E> eventType,
         Listener listener,
         EventPriority priority,
         boolean ignoredCancelled,
+        @NullOr ListenerMethod method,
+        @NullOr Predicate<? super E> gate,
+        @NullOr DeferredConsumer<E> deferred,
         ExceptionalExecutor executor
     ) {
         Objects.requireNonNull(plugin, "plugin");
@@ -99,79 +225,188 @@ final class EventsImpl
         Objects.requireNonNull(listener, "listener");
         Objects.requireNonNull(executor, "executor");
         
+        if (!plugin.isEnabled())
+        {
+            throw new IllegalPluginAccessException("Plugin attempted to register " + eventType + " while not enabled");
+        }
+        
+        HandlerList handlers = HandlerLists.of(eventType);
         checkThenWarnIfDeprecatedEvent(plugin, eventType);
         
+        @NullOr ListenerMetrics metrics = ListenerMetrics.enabled(plugin);
+        @NullOr ListenerCircuitBreakers breakers = ListenerCircuitBreakers.enabled(plugin);
+        
+        UnaryOperator<ExceptionalExecutor> instrumentation = instrumented ->
+        {
+            if (metrics != null)
+            {
+                instrumented = metrics.instrument(subscription, listener, (method == null) ? null : method.name(), eventType, priority, instrumented);
+            }
+            
+            // Outside of metrics, so that skipped invocations aren't recorded
+            return (breakers == null) ? instrumented : breakers.protect(listener, eventType, instrumented);
+        };
+        
+        // Deferred listeners are instrumented where they actually handle events, not where events are queued
+        if (deferred != null) { deferred.instrument(instrumentation); }
+        else { executor = instrumentation.apply(executor); }
+        
+        EventExecutor handled = handle(plugin, listener, eventType, method, priority, gate, executor);
+        
+        @NullOr ListenerMultiplexer multiplexer = ListenerMultiplexer.enabled(plugin);
+        
+        if (multiplexer != null) { subscription.add(multiplexer.add(handlers, priority, ignoredCancelled, listener, handled)); }
+        else { register(subscription, plugin, handlers, listener, priority, ignoredCancelled, handled); }
+    }
+    
+    private static void register(
+        ListenerSubscription subscription,
+        Plugin plugin,
+        HandlerList handlers,
+        Listener listener,
+        EventPriority priority,
+        boolean ignoredCancelled,
+        EventExecutor executor
+    ) {
+        RegisteredListener registered = (plugin.getServer().getPluginManager().useTimings())
+            ? new TimedRegisteredListener(listener, executor, priority, plugin, ignoredCancelled)
+            : new RegisteredListener(listener, executor, priority, plugin, ignoredCancelled);
+        
+        @NullOr RegistrationBatch batch = RegistrationBatch.current();
+        
+        if (batch != null) { batch.add(handlers, registered); }
+        else { handlers.register(registered); }
+        
+        subscription.add(handlers, registered);
+    }
+    
+    /**
+     * Registers a multiplexed channel's executor as is, since each of
+     * its listeners is already decorated individually.
+     */
+    static Subscription registerChannel(
+        Plugin plugin,
+        HandlerList handlers,
+        Listener channel,
+        EventExecutor executor,
+        EventPriority priority,
+        boolean ignoredCancelled
+    ) {
+        if (!plugin.isEnabled())
+        {
+            throw new IllegalPluginAccessException("Plugin attempted to register " + channel + " while not enabled");
+        }
+        
+        ListenerSubscription subscription = new ListenerSubscription();
+        register(subscription, plugin, handlers, channel, priority, ignoredCancelled, executor);
+        return subscription;
+    }
+    
+    /**
+     * Runs the provided action when the plugin is disabled (before its listeners are unregistered).
+     */
+    static void onDisable(Plugin plugin, Runnable action)
+    {
+        Objects.requireNonNull(action, "action");
+        
         plugin.getServer().getPluginManager().registerEvent(
-            eventType, listener, priority, handle(executor), plugin, ignoredCancelled
+            PluginDisableEvent.class,
+            new Listener() {},
+            EventPriority.MONITOR,
+            (listener, event) -> {
+                if (event instanceof PluginDisableEvent && ((PluginDisableEvent) event).getPlugin() == plugin) { action.run(); }
+            },
+            plugin
         );
     }
     
     @SuppressWarnings("ConstantConditions")
-    private static <A extends Annotation> Optional<A> annotation(AnnotatedElement annotated, Class<A> type)
+    static <A extends Annotation> Optional<A> annotation(AnnotatedElement annotated, Class<A> type)
     {
         return Optional.ofNullable(annotated.getAnnotation(type));
     }
     
-    private static void checkThenWarnIfDeprecatedEvent(Plugin plugin, Class<? extends Event> eventType)
+    private static final ClassValue<Optional<Class<?>>> DEPRECATED_EVENT_CLASSES = new ClassValue<>()
     {
-        for (Class<?> clazz = eventType; Event.class.isAssignableFrom(clazz); clazz = clazz.getSuperclass())
+        @Override
+        protected Optional<Class<?>> computeValue(Class<?> eventType)
         {
-            if (!clazz.isAnnotationPresent(Deprecated.class)) { continue; }
-    
-            Warning.WarningState warningState = plugin.getServer().getWarningState();
-            Optional<Warning> warning = annotation(clazz, Warning.class);
-            
-            boolean shouldBeWarned = warning.filter(Warning::value).isPresent();
-            boolean canBeWarned = warningState != Warning.WarningState.OFF;
-            
-            if (shouldBeWarned && canBeWarned)
+            for (Class<?> clazz = eventType; Event.class.isAssignableFrom(clazz); clazz = clazz.getSuperclass())
             {
-                plugin.getLogger().log(
-                    Level.WARNING,
-                    String.format(
-                        "%s has registered a listener for %s, but the event is deprecated (%s). %s.",
-                        plugin.getDescription().getFullName(),
-                        eventType.getSimpleName(),
-                        clazz.getName(),
-                        warning.map(Warning::reason)
-                            .filter(Predicate.not(String::isBlank))
-                            .orElse("Server performance will be affected")
-                    ),
-                    (warningState == Warning.WarningState.ON) ? new AuthorNagException(null) : null
-                );
-                
-                return; // already warned, don't spam
+                if (!clazz.isAnnotationPresent(Deprecated.class)) { continue; }
+                if (annotation(clazz, Warning.class).filter(Warning::value).isPresent()) { return Optional.of(clazz); }
             }
+            
+            return Optional.empty();
         }
+    };
+    
+    private static void checkThenWarnIfDeprecatedEvent(Plugin plugin, Class<? extends Event> eventType)
+    {
+        @NullOr Class<?> clazz = DEPRECATED_EVENT_CLASSES.get(eventType).orElse(null);
+        if (clazz == null) { return; }
+        
+        Warning.WarningState warningState = plugin.getServer().getWarningState();
+        if (warningState == Warning.WarningState.OFF) { return; }
+        
+        Optional<Warning> warning = annotation(clazz, Warning.class);
+        
+        plugin.getLogger().log(
+            Level.WARNING,
+            String.format(
+                "%s has registered a listener for %s, but the event is deprecated (%s). %s.",
+                plugin.getDescription().getFullName(),
+                eventType.getSimpleName(),
+                clazz.getName(),
+                warning.map(Warning::reason)
+                    .filter(Predicate.not(String::isBlank))
+                    .orElse("Server performance will be affected")
+            ),
+            (warningState == Warning.WarningState.ON) ? new AuthorNagException(null) : null
+        );
+    }
+    
+    static <E extends Event> Subscription registerEventConsumer(
+        Plugin plugin,
+        Class<E> eventType,
+        EventPriority priority,
+        boolean ignoredCancelled,
+        EventConsumer<E> listener
+    ) {
+        return registerEventConsumer(plugin, eventType, priority, ignoredCancelled, null, null, listener);
     }
     
     @SuppressWarnings("unchecked")
-    static <E extends Event> void registerEventConsumer(
+    static <E extends Event> Subscription registerEventConsumer(
         Plugin plugin,
         Class<E> eventType,
         EventPriority priority,
         boolean ignoredCancelled,
+        @NullOr Predicate<? super E> gate,
+        @NullOr DeferredConsumer<E> deferred,
         EventConsumer<E> listener
     ) {
-        register(plugin, eventType, listener, priority, ignoredCancelled, (li, ev) -> {
-            if (eventType.isAssignableFrom(ev.getClass())) { ((EventConsumer<E>) li).accept((E) ev); }
-        });
+        ListenerSubscription subscription = new ListenerSubscription();
+        
+        // Only invoked with events of the registered type (see handle())
+        register(subscription, plugin, eventType, listener, priority, ignoredCancelled, null, gate, deferred, (li, ev) ->
+            ((EventConsumer<E>) li).accept((E) ev)
+        );
+        
+        if (deferred != null) { deferred.bind(subscription); }
+        return subscription;
     }
     
-    static void registerMethods(Plugin plugin, Listener listener)
+    static Subscription registerMethods(Plugin plugin, Listener listener)
     {
         Objects.requireNonNull(plugin, "plugin");
         Objects.requireNonNull(listener, "listener");
         
-        Class<?> clazz = listener.getClass();
-    
-        Set<Method> methods =
-            Stream.concat(Arrays.stream(clazz.getMethods()), Arrays.stream(clazz.getDeclaredMethods()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        ListenerSubscription subscription = new ListenerSubscription();
         
-        for (Method method : methods)
+        for (ListenerMethod method : ListenerMethod.of(listener.getClass()))
         {
-            try { registerMethod(plugin, listener, method); }
+            try { registerMethod(subscription, plugin, listener, method); }
             catch (RuntimeException e)
             {
                 plugin.getLogger().log(
@@ -179,77 +414,37 @@ final class EventsImpl
                     String.format(
                         "%s could not register event listener method \"%s\" in %s",
                         plugin.getDescription().getFullName(),
-                        method.toGenericString(),
+                        method.signature(),
                         listener.getClass()
                     ),
                     e
                 );
             }
         }
+        
+        return subscription;
     }
     
-    private static void registerMethod(Plugin plugin, Listener listener, Method method)
+    private static void registerMethod(ListenerSubscription subscription, Plugin plugin, Listener listener, ListenerMethod method)
     {
-        @NullOr EventHandler meta = resolveAnnotation(listener, method);
-        if (meta == null) { return; }
+        @NullOr RuntimeException failure = method.failure();
+        if (failure != null) { throw failure; }
         
-        @NullOr Class<?> param = (method.getParameterCount() != 1) ? null : method.getParameterTypes()[0];
-        @NullOr Class<? extends Event> eventType = (param == null) ? null : param.asSubclass(Event.class);
+        @NullOr Class<? extends Event> eventType = method.eventType();
+        @NullOr ExceptionalExecutor executor = method.executor();
         
-        if (eventType == null)
+        if (eventType == null || executor == null)
         {
             plugin.getLogger().severe(String.format(
                 "%s attempted to register an invalid event listener method signature \"%s\" in %s",
                 plugin.getDescription().getFullName(),
-                method.toGenericString(),
+                method.signature(),
                 listener.getClass()
             ));
             return;
         }
         
-        method.setAccessible(true);
-        MethodHandle handle;
-        
-        try { handle = LOOKUP.unreflect(method); }
-        catch (IllegalAccessException e) { throw new RuntimeException(e); }
-        
-        register(plugin, eventType, listener, meta.priority(), meta.ignoreCancelled(), (li, ev) -> {
-            if (eventType.isAssignableFrom(ev.getClass())) { handle.invoke(li, ev); }
-        });
-    }
-    
-    private static @NullOr EventHandler resolveAnnotation(Listener listener, Method method)
-    {
-        return annotation(method, EventHandler.class).orElseGet(() ->
-        {
-            @NullOr ListenerOrder order =
-                annotation(method, EventListener.class)
-                    .map(EventListener::value)
-                    .orElse(null);
-            
-            if (order == null) { return null; }
-            
-            Class<?> clazz = listener.getClass();
-            
-            CancellationPolicy policy =
-                Stream.of(method, clazz, clazz.getPackage())
-                    .flatMap(element -> annotation(element, CancelledEvents.class).stream())
-                    .map(CancelledEvents::value)
-                    .findFirst()
-                    .orElse(CancellationPolicy.ACCEPT);
-            
-            return new EventHandler()
-            {
-                @Override
-                public Class<? extends Annotation> annotationType() { return EventHandler.class; }
-                
-                @Override
-                public EventPriority priority() { return order.priority(); }
-                
-                @Override
-                public boolean ignoreCancelled() { return policy.ignoresCancelledEvents(); }
-            };
-        });
+        register(subscription, plugin, eventType, listener, method.priority(), method.ignoreCancelled(), method, null, null, executor);
     }
     
     @FunctionalInterface
@@ -265,6 +460,14 @@ final class EventsImpl
         
         private EventPriority priority = EventPriority.NORMAL;
         private boolean ignoreCancelled = false;
+        private @NullOr Function<? super E, ?> coalesceKey = null;
+        private @NullOr SampleGate sample = null;
+        private @NullOr Function<? super E, ?> throttleKey = null;
+        private int throttleMaxPerTick = 0;
+        private @NullOr Function<? super E, ?> offloadKey = null;
+        private OffloadPolicy offloadPolicy = OffloadPolicy.defaults();
+        private long expireAfterTicks = 0;
+        private boolean once = false;
         
         Builder(Plugin plugin, Class<E> event)
         {
@@ -279,7 +482,7 @@ final class EventsImpl
             this.priority = order.priority();
             return this;
         }
-    
+        
         @Override
         public Events.Builder<E> cancelled(CancellationPolicy policy)
         {
@@ -287,11 +490,135 @@ final class EventsImpl
             this.ignoreCancelled = policy.ignoresCancelledEvents();
             return this;
         }
-    
+        
+        @Override
+        public Events.Builder<E> coalesce(Function<? super E, ?> key)
+        {
+            rejectPooled("coalesced");
+            this.coalesceKey = Objects.requireNonNull(key, "key");
+            return this;
+        }
+        
+        @Override
+        public Events.Builder<E> sample(int events, int outOf)
+        {
+            this.sample = new SampleGate(events, outOf);
+            return this;
+        }
+        
+        @Override
+        public Events.Builder<E> throttle(Function<? super E, ?> key, int maxPerTick)
+        {
+            if (maxPerTick <= 0) { throw new IllegalArgumentException("Invalid max per tick: " + maxPerTick); }
+            this.throttleKey = Objects.requireNonNull(key, "key");
+            this.throttleMaxPerTick = maxPerTick;
+            return this;
+        }
+        
+        @Override
+        public Events.Builder<E> offload(Function<? super E, ?> key, OffloadPolicy policy)
+        {
+            rejectPooled("offloaded");
+            this.offloadKey = Objects.requireNonNull(key, "key");
+            this.offloadPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+        
+        @Override
+        public Events.Builder<E> expireAfterTicks(long ticks)
+        {
+            if (ticks <= 0) { throw new IllegalArgumentException("Invalid ticks: " + ticks); }
+            this.expireAfterTicks = ticks;
+            return this;
+        }
+        
+        @Override
+        public Events.Builder<E> once()
+        {
+            this.once = true;
+            return this;
+        }
+        
+        // Pooled events are reused once they've been called, so they can't be delivered afterwards
+        private void rejectPooled(String deferral)
+        {
+            if (PooledEvent.class.isAssignableFrom(event))
+            {
+                throw new IllegalArgumentException("Pooled events can't be " + deferral + ": " + event.getName());
+            }
+        }
+        
+        private @NullOr Predicate<? super E> gate()
+        {
+            @NullOr SampleGate sampled = sample;
+            @NullOr Function<? super E, ?> key = throttleKey;
+            
+            if (key == null) { return sampled; }
+            
+            // Sampling first, so that skipped events don't count towards the throttle
+            ThrottleGate<E> throttled = new ThrottleGate<>(ServerTicks.of(plugin), key, throttleMaxPerTick);
+            return (sampled == null) ? throttled : event -> sampled.test(event) && throttled.test(event);
+        }
+        
+        // Offloading then coalescing, so that only the latest event per key is offloaded
+        private @NullOr DeferredConsumer<E> deferred(EventConsumer<E> listener)
+        {
+            @NullOr Function<? super E, ?> offload = offloadKey;
+            @NullOr Function<? super E, ?> coalesce = coalesceKey;
+            
+            @NullOr DeferredConsumer<E> offloaded = (offload == null) ? null : new OffloadingConsumer<>(plugin, offload, offloadPolicy, listener);
+            if (coalesce == null) { return offloaded; }
+            
+            return new CoalescingConsumer<>(plugin, coalesce, ignoreCancelled, (offloaded == null) ? listener : offloaded);
+        }
+        
+        private Subscription scoped(EventConsumer<E> listener, Function<EventConsumer<E>, Subscription> registration)
+        {
+            if (!once && expireAfterTicks <= 0) { return registration.apply(listener); }
+            
+            ScopedSubscription scope = new ScopedSubscription();
+            
+            // Innermost, so that only events actually delivered to the listener count
+            scope.bind(registration.apply((once) ? scope.once(listener) : listener));
+            
+            if (expireAfterTicks > 0) { scope.expire(ServerTicks.of(plugin), expireAfterTicks); }
+            return scope;
+        }
+        
+        @Override
+        public Subscription listener(EventConsumer<E> listener)
+        {
+            Objects.requireNonNull(listener, "listener");
+            
+            return scoped(listener, consumer -> {
+                @NullOr DeferredConsumer<E> deferred = deferred(consumer);
+                return registerEventConsumer(plugin, event, priority, ignoreCancelled, gate(), deferred, (deferred == null) ? consumer : deferred);
+            });
+        }
+        
         @Override
-        public void listener(EventConsumer<E> listener)
+        public <K> Subscription keyedBy(Function<? super E, ? extends K> key, K value, EventConsumer<E> listener)
         {
-            registerEventConsumer(plugin, event, priority, ignoreCancelled, listener);
+            Objects.requireNonNull(key, "key");
+            Objects.requireNonNull(value, "value");
+            Objects.requireNonNull(listener, "listener");
+            
+            return scoped(listener, inner -> {
+                @NullOr DeferredConsumer<E> deferred = deferred(inner);
+                EventConsumer<E> consumer = (deferred == null) ? inner : deferred;
+                
+                // The index is shared, so gates apply per keyed listener rather than to the index
+                @NullOr Predicate<? super E> gate = gate();
+                if (gate != null)
+                {
+                    EventConsumer<E> ungated = consumer;
+                    consumer = e -> { if (gate.test(e)) { ungated.accept(e); } };
+                }
+                
+                Subscription subscription = KeyedIndex.subscribe(plugin, event, priority, ignoreCancelled, key, value, listener, consumer);
+                if (deferred != null) { deferred.bind(subscription); }
+                return subscription;
+            });
         }
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.events.SuppressedEventExceptionsEvent;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Protects against exception storms from a single registered listener.
+ *
+ * <p>Only the first few exceptions in each window are inspected: those with
+ * a signature (exception type plus top stack frames) that hasn't been seen
+ * before are reported individually, and the rest are suppressed. Once
+ * exceptions are suppressed, a single {@link SuppressedEventExceptionsEvent}
+ * carrying the number of suppressed exceptions is scheduled for the end of
+ * the window. Beyond the first few exceptions, a failing listener costs a
+ * counter increment.</p>
+ *
+ * <p>Reports are always called on the main thread, since a listener may handle both
+ * synchronous and asynchronous events. Only the type of the most recent event is
+ * kept for the report, as the event itself may be modified or reused later on.</p>
+ */
+final class ExceptionGuard
+{
+    private static final int INSPECTED_PER_WINDOW = 5;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long WINDOW_TICKS = 200;
+    
+    private static final int SIGNATURE_FRAMES = 3;
+    private static final int MAX_SIGNATURES = 64;
+    
+    private final Plugin plugin;
+    private final Listener listener;
+    
+    // Guarded by this
+    private final Set<String> signatures = new HashSet<>();
+    private long windowStart = 0;
+    private int inspected = 0;
+    private long suppressed = 0;
+    private boolean reportScheduled = false;
+    private @NullOr Class<? extends Event> latestEventType = null;
+    private @NullOr Throwable latestException = null;
+    
+    ExceptionGuard(Plugin plugin, Listener listener)
+    {
+        this.plugin = plugin;
+        this.listener = listener;
+    }
+    
+    /**
+     * Decides whether an uncaught exception should be reported individually.
+     *
+     * @param event         the event being handled
+     * @param exception     the uncaught exception
+     *
+     * @return {@code true} if the exception should be reported, otherwise it was suppressed
+     */
+    boolean admit(Event event, Throwable exception)
+    {
+        long now = System.nanoTime();
+        
+        synchronized (this)
+        {
+            if (now - windowStart > WINDOW_NANOS)
+            {
+                windowStart = now;
+                inspected = 0;
+            }
+            
+            if (inspected < INSPECTED_PER_WINDOW)
+            {
+                inspected++;
+                
+                String signature = signature(exception);
+                
+                if (signatures.contains(signature)) { suppress(event, exception); }
+                else if (signatures.size() < MAX_SIGNATURES) { signatures.add(signature); return true; }
+                else { suppress(event, exception); }
+            }
+            else
+            {
+                suppress(event, exception);
+            }
+            
+            if (reportScheduled) { return false; }
+            reportScheduled = true;
+        }
+        
+        schedule();
+        return false;
+    }
+    
+    // Guarded by this
+    private void suppress(Event event, Throwable exception)
+    {
+        suppressed++;
+        latestEventType = event.getClass();
+        latestException = exception;
+    }
+    
+    private void schedule()
+    {
+        BukkitScheduler scheduler = plugin.getServer().getScheduler();
+        
+        // Aggregated reports are synchronous events, regardless of the suppressed events' synchronicity
+        try { scheduler.runTaskLater(plugin, this::report, WINDOW_TICKS); }
+        catch (IllegalPluginAccessException ignored)
+        {
+            // Disabled plugins can't schedule tasks, so suppressed exceptions go unreported
+        }
+    }
+    
+    private void report()
+    {
+        long count;
+        @NullOr Class<? extends Event> eventType;
+        @NullOr Throwable exception;
+        
+        synchronized (this)
+        {
+            count = suppressed;
+            eventType = latestEventType;
+            exception = latestException;
+            
+            suppressed = 0;
+            latestEventType = null;
+            latestException = null;
+            reportScheduled = false;
+        }
+        
+        if (count <= 0 || eventType == null || exception == null) { return; }
+        
+        int handlers = SuppressedEventExceptionsEvent.getHandlerList().getRegisteredListeners().length;
+        
+        if (handlers > 0)
+        {
+            EventsImpl.dispatch(new SuppressedEventExceptionsEvent(eventType, listener, exception, count));
+            return;
+        }
+        
+        plugin.getLogger().log(
+            Level.SEVERE,
+            String.format(
+                "%s suppressed %d uncaught exception(s) from %s while handling %s, most recently:",
+                plugin.getDescription().getFullName(),
+                count,
+                listener.getClass().getName(),
+                eventType.getSimpleName()
+            ),
+            exception
+        );
+    }
+    
+    private static String signature(Throwable exception)
+    {
+        StringBuilder signature = new StringBuilder(exception.getClass().getName());
+        StackTraceElement[] frames = exception.getStackTrace();
+        
+        for (int i = 0; i < Math.min(SIGNATURE_FRAMES, frames.length); i++)
+        {
+            StackTraceElement frame = frames[i];
+            signature.append('|')
+                .append(frame.getClassName()).append('#')
+                .append(frame.getMethodName()).append(':')
+                .append(frame.getLineNumber());
+        }
+        
+        return signature.toString();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * The Java Flight Recorder events behind {@link FlightRecording}, which is the only class
+ * that may use this one (and only once it has checked that the {@code jdk.jfr} module is
+ * present), since loading it links against {@code jdk.jfr}.
+ */
+final class FlightRecorderEvents
+{
+    private FlightRecorderEvents() { throw new UnsupportedOperationException(); }
+    
+    private static final ThreadLocal<@NullOr Dispatch> DISPATCHING = new ThreadLocal<>();
+    
+    private static boolean cancelled(Event event)
+    {
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+    
+    static void dispatch(PluginManager manager, Event event)
+    {
+        Dispatch dispatch = new Dispatch();
+        
+        if (!dispatch.isEnabled())
+        {
+            manager.callEvent(event);
+            return;
+        }
+        
+        @NullOr Dispatch enclosing = DISPATCHING.get();
+        
+        dispatch.dispatched = event;
+        dispatch.eventType = event.getClass();
+        dispatch.handlers = event.getHandlers().getRegisteredListeners().length;
+        dispatch.asynchronous = event.isAsynchronous();
+        
+        DISPATCHING.set(dispatch);
+        dispatch.begin();
+        
+        try { manager.callEvent(event); }
+        finally
+        {
+            dispatch.end();
+            DISPATCHING.set(enclosing);
+            
+            dispatch.cancelled = cancelled(event);
+            if (!dispatch.cancelled) { dispatch.cancelledBy = null; }
+            
+            if (dispatch.shouldCommit()) { dispatch.commit(); }
+        }
+    }
+    
+    static void uncaught(Plugin plugin, Listener listener, Event event, Throwable uncaught)
+    {
+        UncaughtException recorded = new UncaughtException();
+        if (!recorded.isEnabled()) { return; }
+        
+        recorded.plugin = plugin.getName();
+        recorded.listenerClass = listener.getClass();
+        recorded.eventType = event.getClass();
+        recorded.exceptionClass = uncaught.getClass();
+        recorded.message = uncaught.getMessage();
+        recorded.commit();
+    }
+    
+    static FlightRecording.@NullOr Invocation begin(Event event)
+    {
+        ListenerInvocation invocation = new ListenerInvocation();
+        if (!invocation.isEnabled()) { return null; }
+        
+        invocation.wasCancelled = cancelled(event);
+        invocation.begin();
+        return invocation;
+    }
+    
+    static void end(FlightRecording.Site site, FlightRecording.Invocation began, Event event)
+    {
+        ListenerInvocation invocation = (ListenerInvocation) began;
+        
+        invocation.end();
+        invocation.cancelledEvent = !invocation.wasCancelled && cancelled(event);
+        
+        if (invocation.cancelledEvent)
+        {
+            @NullOr Dispatch dispatch = DISPATCHING.get();
+            if (dispatch != null && dispatch.dispatched == event) { dispatch.cancelledBy = site.listenerClass; }
+        }
+        
+        if (!invocation.shouldCommit()) { return; }
+        
+        invocation.plugin = site.plugin;
+        invocation.listenerClass = site.listenerClass;
+        invocation.listenerMethod = site.listenerMethod;
+        invocation.eventType = event.getClass();
+        invocation.priority = site.priority;
+        invocation.commit();
+    }
+    
+    @Name("community.leaf.eventful.ListenerInvocation")
+    @Label("Listener Invocation")
+    @Description("A registered listener handling an event")
+    @Category(FlightRecording.CATEGORY)
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class ListenerInvocation extends jdk.jfr.Event implements FlightRecording.Invocation
+    {
+        @Label("Plugin")
+        @NullOr String plugin;
+        
+        @Label("Listener Class")
+        @NullOr Class<?> listenerClass;
+        
+        @Label("Listener Method")
+        @Description("The listener method's signature, absent for event consumers")
+        @NullOr String listenerMethod;
+        
+        @Label("Event Type")
+        @NullOr Class<?> eventType;
+        
+        @Label("Priority")
+        @NullOr String priority;
+        
+        @Label("Cancelled Event")
+        @Description("Whether the listener cancelled the event")
+        boolean cancelledEvent;
+        
+        transient boolean wasCancelled;
+    }
+    
+    @Name("community.leaf.eventful.Dispatch")
+    @Label("Event Dispatch")
+    @Description("An event called through Eventful, including all of its listeners")
+    @Category(FlightRecording.CATEGORY)
+    @Threshold("1 ms")
+    static final class Dispatch extends jdk.jfr.Event
+    {
+        @Label("Event Type")
+        @NullOr Class<?> eventType;
+        
+        @Label("Handlers")
+        @Description("Number of registered listeners")
+        int handlers;
+        
+        @Label("Asynchronous")
+        boolean asynchronous;
+        
+        @Label("Cancelled")
+        boolean cancelled;
+        
+        @Label("Cancelled By")
+        @Description("Class of the listener that cancelled the event")
+        @NullOr Class<?> cancelledBy;
+        
+        transient @NullOr Event dispatched;
+    }
+    
+    @Name("community.leaf.eventful.UncaughtException")
+    @Label("Uncaught Listener Exception")
+    @Description("An exception thrown by a registered listener")
+    @Category(FlightRecording.CATEGORY)
+    static final class UncaughtException extends jdk.jfr.Event
+    {
+        @Label("Plugin")
+        @NullOr String plugin;
+        
+        @Label("Listener Class")
+        @NullOr Class<?> listenerClass;
+        
+        @Label("Event Type")
+        @NullOr Class<?> eventType;
+        
+        @Label("Exception Class")
+        @NullOr Class<?> exceptionClass;
+        
+        @Label("Message")
+        @NullOr String message;
+    }
+}
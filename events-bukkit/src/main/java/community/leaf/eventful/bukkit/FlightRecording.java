@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Java Flight Recorder events for listener invocations, dispatches, and uncaught exceptions.
+ *
+ * <p>Events are only populated when they're enabled in a running recording, so the cost
+ * of a disabled event is a single check. Invocations and dispatches have a default
+ * threshold of 1 ms, which may be lowered in the recording's settings (for example,
+ * {@code community.leaf.eventful.ListenerInvocation#threshold=0 ms}) to attribute all
+ * tick time to individual listeners.</p>
+ *
+ * <p>The {@code jdk.jfr} module is optional (runtimes built with {@code jlink} may leave
+ * it out), so it's detected once, and nothing is recorded without it. The recorded events
+ * themselves live in {@link FlightRecorderEvents}, which is never loaded in that case.</p>
+ */
+final class FlightRecording
+{
+    private FlightRecording() { throw new UnsupportedOperationException(); }
+    
+    static final String CATEGORY = "Eventful";
+    
+    private static final boolean AVAILABLE = detect();
+    
+    private static boolean detect()
+    {
+        try { return ModuleLayer.boot().findModule("jdk.jfr").isPresent(); }
+        catch (LinkageError | RuntimeException e) { return false; }
+    }
+    
+    /**
+     * Calls the event with the provided plugin manager, recording the dispatch if enabled.
+     *
+     * @param manager   the plugin manager
+     * @param event     the event
+     */
+    static void dispatch(PluginManager manager, Event event)
+    {
+        if (AVAILABLE) { FlightRecorderEvents.dispatch(manager, event); }
+        else { manager.callEvent(event); }
+    }
+    
+    /**
+     * Records an uncaught exception thrown by a listener, if enabled.
+     *
+     * @param plugin    the listener's plugin
+     * @param listener  the listener
+     * @param event     the event passed to the listener
+     * @param uncaught  the exception
+     */
+    static void uncaught(Plugin plugin, Listener listener, Event event, Throwable uncaught)
+    {
+        if (AVAILABLE) { FlightRecorderEvents.uncaught(plugin, listener, event, uncaught); }
+    }
+    
+    /**
+     * A listener invocation that's being recorded.
+     */
+    interface Invocation {}
+    
+    /**
+     * A registered listener whose invocations are recorded.
+     */
+    static final class Site
+    {
+        final String plugin;
+        final Class<?> listenerClass;
+        final @NullOr String listenerMethod;
+        final String priority;
+        
+        /**
+         * Constructs a new site.
+         *
+         * @param plugin            the listener's plugin
+         * @param listener          the listener
+         * @param listenerMethod    the listener method's signature or {@code null} if not a listener method
+         * @param priority          the listener's priority
+         */
+        Site(Plugin plugin, Listener listener, @NullOr String listenerMethod, EventPriority priority)
+        {
+            this.plugin = plugin.getName();
+            this.listenerClass = listener.getClass();
+            this.listenerMethod = listenerMethod;
+            this.priority = priority.name();
+        }
+        
+        /**
+         * Begins recording an invocation.
+         *
+         * @param event     the event about to be passed to the listener
+         *
+         * @return the invocation, which must be {@link #end(Invocation, Event) ended},
+         *         or {@code null} if invocations aren't being recorded
+         */
+        @NullOr Invocation begin(Event event)
+        {
+            return (AVAILABLE) ? FlightRecorderEvents.begin(event) : null;
+        }
+        
+        /**
+         * Ends recording an invocation then commits it if it exceeded the threshold.
+         *
+         * @param invocation    the invocation or {@code null} if it wasn't being recorded
+         * @param event         the event passed to the listener
+         */
+        void end(@NullOr Invocation invocation, Event event)
+        {
+            if (invocation != null) { FlightRecorderEvents.end(this, invocation, event); }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * Resolves event handler lists the same way Bukkit's plugin manager does,
+ * except that each event type is only resolved once.
+ */
+final class HandlerLists
+{
+    private HandlerLists() { throw new UnsupportedOperationException(); }
+    
+    private static final ClassValue<HandlerList> HANDLER_LISTS = new ClassValue<>()
+    {
+        @Override
+        protected HandlerList computeValue(Class<?> type)
+        {
+            return resolve(type.asSubclass(Event.class));
+        }
+    };
+    
+    /**
+     * Gets the handler list that listeners for the provided event type are registered to.
+     *
+     * @param eventType     the event type
+     *
+     * @return the handler list
+     *
+     * @throws IllegalPluginAccessException if the event type (or a superclass) doesn't declare {@code getHandlerList()}
+     */
+    static HandlerList of(Class<? extends Event> eventType)
+    {
+        return HANDLER_LISTS.get(Objects.requireNonNull(eventType, "eventType"));
+    }
+    
+    private static HandlerList resolve(Class<? extends Event> eventType)
+    {
+        for (Class<?> clazz = eventType; clazz != Event.class && Event.class.isAssignableFrom(clazz); clazz = clazz.getSuperclass())
+        {
+            Method method;
+            
+            try { method = clazz.getDeclaredMethod("getHandlerList"); }
+            catch (NoSuchMethodException ignored) { continue; }
+            
+            try
+            {
+                method.setAccessible(true);
+                return (HandlerList) Objects.requireNonNull(method.invoke(null), "handler list");
+            }
+            catch (ReflectiveOperationException | RuntimeException e)
+            {
+                throw new IllegalPluginAccessException(e.toString());
+            }
+        }
+        
+        throw new IllegalPluginAccessException(
+            "Unable to find handler list for event " + eventType.getName() + ". Static getHandlerList method required!"
+        );
+    }
+}
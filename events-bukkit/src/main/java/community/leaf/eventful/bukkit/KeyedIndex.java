@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes events to consumers subscribed to the event's key, so that dispatching
+ * costs one hash lookup rather than invoking every consumer to compare keys.
+ *
+ * <p>An index is registered (as a single consumer) while it has any subscribers.
+ * Indexes are shared per plugin, event type, priority, cancellation policy and
+ * key function <i>instance</i>, so reusing the same key function matters. Within a
+ * batch, consumers only subscribe (and indexes are only registered) once the batch
+ * is committed.</p>
+ *
+ * <p>Consumers are isolated from each other: an exception thrown by one consumer is
+ * reported against that consumer (guarded against exception storms individually),
+ * and the rest of the key's consumers still run. Metrics and time-based circuit
+ * breakers only see the index itself, so they apply to all of its consumers.</p>
+ *
+ * @param <E>   event type
+ */
+final class KeyedIndex<E extends Event> implements EventConsumer<E>
+{
+    private static final Map<Plugin, Map<List<Object>, KeyedIndex<?>>> INDEXES = new ConcurrentHashMap<>();
+    
+    /**
+     * Subscribes the consumer to events with the provided key. Exceptions thrown
+     * by the consumer are reported against the provided listener.
+     *
+     * @return a subscription that unsubscribes only this consumer
+     */
+    static <E extends Event> Subscription subscribe(
+        Plugin plugin,
+        Class<E> eventType,
+        EventPriority priority,
+        boolean ignoreCancelled,
+        Function<? super E, ?> keyFunction,
+        Object key,
+        Listener listener,
+        EventConsumer<E> consumer
+    ) {
+        Objects.requireNonNull(plugin, "plugin");
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(listener, "listener");
+        Objects.requireNonNull(consumer, "consumer");
+        
+        Keyed<E> keyed = new Keyed<>(plugin, key, listener, consumer);
+        Runnable attachment = () -> keyed.attach(() -> index(plugin, eventType, priority, ignoreCancelled, keyFunction));
+        
+        @NullOr RegistrationBatch batch = RegistrationBatch.current();
+        
+        if (batch != null) { batch.defer(attachment); }
+        else { attachment.run(); }
+        
+        return keyed;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E extends Event> KeyedIndex<E> index(
+        Plugin plugin,
+        Class<E> eventType,
+        EventPriority priority,
+        boolean ignoreCancelled,
+        Function<? super E, ?> keyFunction
+    ) {
+        Map<List<Object>, KeyedIndex<?>> indexes = INDEXES.computeIfAbsent(plugin, KeyedIndex::indexes);
+        List<Object> id = List.of(eventType, priority, ignoreCancelled, keyFunction);
+        
+        return (KeyedIndex<E>) indexes.computeIfAbsent(id, k ->
+            new KeyedIndex<>(indexes, k, plugin, eventType, priority, ignoreCancelled, keyFunction)
+        );
+    }
+    
+    private static Map<List<Object>, KeyedIndex<?>> indexes(Plugin plugin)
+    {
+        // Disabling a plugin unregisters its listeners, including indexes
+        EventsImpl.onDisable(plugin, () -> INDEXES.remove(plugin));
+        return new ConcurrentHashMap<>();
+    }
+    
+    private final Map<Object, Keyed<E>[]> consumers = new ConcurrentHashMap<>();
+    
+    private final Map<List<Object>, KeyedIndex<?>> indexes;
+    private final List<Object> id;
+    private final Plugin plugin;
+    private final Class<E> eventType;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+    private final Function<? super E, ?> keyFunction;
+    
+    // Guarded by this
+    private @NullOr Subscription registration = null;
+    private boolean closed = false;
+    
+    private KeyedIndex(
+        Map<List<Object>, KeyedIndex<?>> indexes,
+        List<Object> id,
+        Plugin plugin,
+        Class<E> eventType,
+        EventPriority priority,
+        boolean ignoreCancelled,
+        Function<? super E, ?> keyFunction
+    ) {
+        this.indexes = indexes;
+        this.id = id;
+        this.plugin = plugin;
+        this.eventType = eventType;
+        this.priority = priority;
+        this.ignoreCancelled = ignoreCancelled;
+        this.keyFunction = keyFunction;
+    }
+    
+    @Override
+    public void accept(E event)
+    {
+        @NullOr Object key = keyFunction.apply(event);
+        if (key == null) { return; }
+        
+        @NullOr Keyed<E>[] targets = consumers.get(key);
+        if (targets == null) { return; }
+        
+        for (Keyed<E> target : targets)
+        {
+            // Not thrown from the index, so that one failing consumer doesn't affect the index's other consumers
+            try { target.consumer.accept(event); }
+            catch (RuntimeException e) { EventsImpl.uncaught(plugin, target.listener, target.guard, event, e); }
+        }
+    }
+    
+    /**
+     * Adds the consumer, registering the index if necessary.
+     *
+     * @return {@code false} if the index already emptied (and closed), so another should be used instead
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private synchronized boolean add(Keyed<E> consumer)
+    {
+        if (closed) { return false; }
+        
+        Object key = consumer.key;
+        
+        consumers.merge(key, new Keyed[] {consumer}, (existing, added) -> {
+            Keyed<E>[] updated = Arrays.copyOf(existing, existing.length + 1);
+            updated[existing.length] = consumer;
+            return updated;
+        });
+        
+        if (registration == null)
+        {
+            try { registration = EventsImpl.registerEventConsumer(plugin, eventType, priority, ignoreCancelled, this); }
+            catch (RuntimeException e)
+            {
+                remove(consumer);
+                throw e;
+            }
+        }
+        
+        return true;
+    }
+    
+    private synchronized void remove(Keyed<E> consumer)
+    {
+        consumers.computeIfPresent(consumer.key, (k, existing) -> {
+            for (int i = 0; i < existing.length; i++)
+            {
+                if (existing[i] != consumer) { continue; }
+                if (existing.length == 1) { return null; }
+                
+                Keyed<E>[] updated = Arrays.copyOf(existing, existing.length - 1);
+                System.arraycopy(existing, i + 1, updated, i, existing.length - i - 1);
+                return updated;
+            }
+            return existing;
+        });
+        
+        if (!consumers.isEmpty()) { return; }
+        
+        // Nothing left to route: stop listening, and let a new index take over later
+        @NullOr Subscription current = registration;
+        if (current != null) { current.close(); }
+        registration = null;
+        closed = true;
+        indexes.remove(id, this);
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "KeyedIndex{eventType=" + eventType.getName() + ", priority=" + priority + ", keys=" + consumers.size() + "}";
+    }
+    
+    private static final class Keyed<E extends Event> implements Subscription
+    {
+        final Object key;
+        final Listener listener;
+        final EventConsumer<E> consumer;
+        final ExceptionGuard guard;
+        
+        // Guarded by this
+        private @NullOr KeyedIndex<E> index = null;
+        private boolean active = true;
+        
+        Keyed(Plugin plugin, Object key, Listener listener, EventConsumer<E> consumer)
+        {
+            this.key = key;
+            this.listener = listener;
+            this.consumer = consumer;
+            this.guard = new ExceptionGuard(plugin, listener);
+        }
+        
+        synchronized void attach(Supplier<KeyedIndex<E>> lookup)
+        {
+            if (!active) { return; } // Closed before its batch was committed
+            
+            // The index may empty (and close) between looking it up and joining it, so look up its replacement
+            KeyedIndex<E> joined;
+            do { joined = lookup.get(); } while (!joined.add(this));
+            
+            index = joined;
+        }
+        
+        @Override
+        public synchronized boolean isActive()
+        {
+            return active;
+        }
+        
+        @Override
+        public void close()
+        {
+            @NullOr KeyedIndex<E> leaving;
+            
+            synchronized (this)
+            {
+                if (!active) { return; }
+                active = false;
+                leaving = index;
+                index = null;
+            }
+            
+            if (leaving != null) { leaving.remove(this); }
+        }
+    }
+}
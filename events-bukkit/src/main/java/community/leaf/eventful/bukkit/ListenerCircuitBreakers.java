@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A plugin's circuit breaker settings, which are discarded when the plugin is disabled.
+ */
+final class ListenerCircuitBreakers implements CircuitBreakers
+{
+    private static final Map<Plugin, ListenerCircuitBreakers> BREAKERS = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the circuit breakers for the provided plugin, creating them (disabled) if necessary.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's circuit breakers
+     */
+    static ListenerCircuitBreakers of(Plugin plugin)
+    {
+        return BREAKERS.computeIfAbsent(Objects.requireNonNull(plugin, "plugin"), ListenerCircuitBreakers::create);
+    }
+    
+    private static ListenerCircuitBreakers create(Plugin plugin)
+    {
+        ListenerCircuitBreakers breakers = new ListenerCircuitBreakers(plugin);
+        EventsImpl.onDisable(plugin, () -> BREAKERS.remove(plugin, breakers));
+        return breakers;
+    }
+    
+    /**
+     * Gets the circuit breakers for the provided plugin only if they're enabled.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's circuit breakers or {@code null} if not enabled
+     */
+    static @NullOr ListenerCircuitBreakers enabled(Plugin plugin)
+    {
+        @NullOr ListenerCircuitBreakers breakers = BREAKERS.get(plugin);
+        return (breakers != null && breakers.isEnabled()) ? breakers : null;
+    }
+    
+    private final Plugin plugin;
+    
+    private volatile @NullOr CircuitBreakerPolicy policy = null;
+    
+    private ListenerCircuitBreakers(Plugin plugin)
+    {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public boolean isEnabled()
+    {
+        return policy != null;
+    }
+    
+    @Override
+    public @NullOr CircuitBreakerPolicy policy()
+    {
+        return policy;
+    }
+    
+    @Override
+    public void enable(CircuitBreakerPolicy policy)
+    {
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+    
+    @Override
+    public void disable()
+    {
+        this.policy = null;
+    }
+    
+    /**
+     * Wraps the provided executor with a circuit breaker using the current policy.
+     *
+     * @param listener      the listener
+     * @param eventType     the registered event type
+     * @param executor      the executor to protect
+     *
+     * @return the protected executor (or the same executor if circuit breakers were disabled in the meantime)
+     */
+    ExceptionalExecutor protect(Listener listener, Class<? extends Event> eventType, ExceptionalExecutor executor)
+    {
+        @NullOr CircuitBreakerPolicy current = policy;
+        if (current == null) { return executor; }
+        return new CircuitBreaker(plugin, this, listener, eventType, current).protect(executor);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import community.leaf.eventful.bukkit.annotations.CancelledEvents;
+import community.leaf.eventful.bukkit.annotations.EventListener;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An annotated event listener method, resolved once per listener class.
+ *
+ * <p>Everything that doesn't depend on a specific listener instance (annotations,
+ * the event type, and the executor that invokes the method) is resolved when a
+ * class is first registered and then cached, so registering another instance of
+ * the same class only needs to bind the receiver. Methods are read from the class's
+ * generated {@link ListenerTable} if it has one, otherwise the class is scanned.</p>
+ */
+final class ListenerMethod
+{
+    private static final ClassValue<List<ListenerMethod>> METHODS_BY_CLASS = new ClassValue<>()
+    {
+        @Override
+        protected List<ListenerMethod> computeValue(Class<?> clazz)
+        {
+            @NullOr ListenerTable<?> table = table(clazz);
+            return (table == null) ? scan(clazz) : read(table);
+        }
+    };
+    
+    /**
+     * Gets all annotated listener methods of the provided class.
+     *
+     * @param clazz     the listener class
+     *
+     * @return the class's (cached) listener methods
+     */
+    static List<ListenerMethod> of(Class<?> clazz)
+    {
+        return METHODS_BY_CLASS.get(clazz);
+    }
+    
+    private static @NullOr ListenerTable<?> table(Class<?> clazz)
+    {
+        Class<?> generated;
+        
+        try { generated = Class.forName(clazz.getName() + ListenerTable.SUFFIX, true, clazz.getClassLoader()); }
+        catch (ClassNotFoundException | LinkageError ignored) { return null; }
+        
+        try { return (ListenerTable<?>) generated.asSubclass(ListenerTable.class).getConstructor().newInstance(); }
+        catch (ReflectiveOperationException | RuntimeException ignored) { return null; } // Unusable table, scan instead
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <L extends Listener> List<ListenerMethod> read(ListenerTable<L> table)
+    {
+        List<ListenerMethod> listeners = new ArrayList<>();
+        
+        table.describe(new ListenerTable.Methods<>()
+        {
+            @Override
+            public <E extends Event> void method(
+                String signature,
+                Class<E> event,
+                EventPriority priority,
+                boolean ignoreCancelled,
+                ListenerTable.Invoker<L, E> invoker
+            ) {
+                ExceptionalExecutor executor = (li, ev) -> invoker.invoke((L) li, (E) ev);
+                listeners.add(new ListenerMethod(signature, event, priority, ignoreCancelled, executor));
+            }
+        });
+        
+        return List.copyOf(listeners);
+    }
+    
+    private static List<ListenerMethod> scan(Class<?> clazz)
+    {
+        Set<Method> methods =
+            Stream.concat(Arrays.stream(clazz.getMethods()), Arrays.stream(clazz.getDeclaredMethods()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        
+        List<ListenerMethod> listeners = new ArrayList<>();
+        
+        for (Method method : methods)
+        {
+            @NullOr EventHandler meta = resolveAnnotation(clazz, method);
+            if (meta == null) { continue; }
+            
+            try { listeners.add(reflect(method, meta.priority(), meta.ignoreCancelled())); }
+            catch (RuntimeException e) { listeners.add(new ListenerMethod(method.toGenericString(), e)); }
+        }
+        
+        return List.copyOf(listeners);
+    }
+    
+    private static @NullOr EventHandler resolveAnnotation(Class<?> clazz, Method method)
+    {
+        return EventsImpl.annotation(method, EventHandler.class).orElseGet(() ->
+        {
+            @NullOr ListenerOrder order =
+                EventsImpl.annotation(method, EventListener.class)
+                    .map(EventListener::value)
+                    .orElse(null);
+            
+            if (order == null) { return null; }
+            
+            CancellationPolicy policy =
+                Stream.of(method, clazz, clazz.getPackage())
+                    .flatMap(element -> EventsImpl.annotation(element, CancelledEvents.class).stream())
+                    .map(CancelledEvents::value)
+                    .findFirst()
+                    .orElse(CancellationPolicy.ACCEPT);
+            
+            return new EventHandler()
+            {
+                @Override
+                public Class<? extends Annotation> annotationType() { return EventHandler.class; }
+                
+                @Override
+                public EventPriority priority() { return order.priority(); }
+                
+                @Override
+                public boolean ignoreCancelled() { return policy.ignoresCancelledEvents(); }
+            };
+        });
+    }
+    
+    private static ListenerMethod reflect(Method method, EventPriority priority, boolean ignoreCancelled)
+    {
+        @NullOr Class<?> param = (method.getParameterCount() != 1) ? null : method.getParameterTypes()[0];
+        @NullOr Class<? extends Event> eventType = (param == null) ? null : param.asSubclass(Event.class);
+        
+        if (eventType == null)
+        {
+            return new ListenerMethod(method.toGenericString(), null, priority, ignoreCancelled, null);
+        }
+        
+        ExceptionalExecutor executor = MethodInvokers.create(method);
+        return new ListenerMethod(method.toGenericString(), eventType, priority, ignoreCancelled, executor);
+    }
+    
+    private final String signature;
+    private final String name;
+    private final @NullOr Class<? extends Event> eventType;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+    private final @NullOr ExceptionalExecutor executor;
+    private final @NullOr RuntimeException failure;
+    
+    private ListenerMethod(
+        String signature,
+        @NullOr Class<? extends Event> eventType,
+        EventPriority priority,
+        boolean ignoreCancelled,
+        @NullOr ExceptionalExecutor executor
+    ) {
+        this.signature = signature;
+        this.name = name(signature);
+        this.eventType = eventType;
+        this.priority = priority;
+        this.ignoreCancelled = ignoreCancelled;
+        this.executor = executor;
+        this.failure = null;
+    }
+    
+    private ListenerMethod(String signature, RuntimeException failure)
+    {
+        this.signature = signature;
+        this.name = name(signature);
+        this.eventType = null;
+        this.priority = EventPriority.NORMAL;
+        this.ignoreCancelled = false;
+        this.executor = null;
+        this.failure = failure;
+    }
+    
+    // Both reflected and generated signatures qualify the name with its declaring class: "... a.b.Listener.name(...)"
+    private static String name(String signature)
+    {
+        int end = signature.indexOf('(');
+        if (end < 0) { return signature; }
+        return signature.substring(signature.lastIndexOf('.', end) + 1, end);
+    }
+    
+    /**
+     * Gets a description of the method (for error messages).
+     *
+     * @return the method's signature
+     */
+    String signature() { return signature; }
+    
+    /**
+     * Gets the method's name.
+     *
+     * @return the method name
+     */
+    String name() { return name; }
+    
+    /**
+     * Gets the event type, which is absent if the method's signature is invalid.
+     *
+     * @return the event type or {@code null}
+     */
+    @NullOr Class<? extends Event> eventType() { return eventType; }
+    
+    EventPriority priority() { return priority; }
+    
+    boolean ignoreCancelled() { return ignoreCancelled; }
+    
+    /**
+     * Gets the executor that invokes this method on whichever listener instance it's given.
+     * It doesn't check the event's type, since listeners of a subtype also receive its siblings.
+     *
+     * @return the executor or {@code null} if the method's signature is invalid
+     */
+    @NullOr ExceptionalExecutor executor() { return executor; }
+    
+    /**
+     * Gets the exception thrown while preparing this method, if any.
+     *
+     * @return the exception or {@code null}
+     */
+    @NullOr RuntimeException failure() { return failure; }
+}
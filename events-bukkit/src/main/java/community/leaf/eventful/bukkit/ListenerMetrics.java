@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A plugin's listener metrics, which are discarded when the plugin is disabled.
+ */
+final class ListenerMetrics implements EventMetrics
+{
+    private static final Map<Plugin, ListenerMetrics> METRICS = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the metrics for the provided plugin, creating them (disabled) if necessary.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's metrics
+     */
+    static ListenerMetrics of(Plugin plugin)
+    {
+        return METRICS.computeIfAbsent(Objects.requireNonNull(plugin, "plugin"), ListenerMetrics::create);
+    }
+    
+    private static ListenerMetrics create(Plugin plugin)
+    {
+        ListenerMetrics metrics = new ListenerMetrics(plugin);
+        EventsImpl.onDisable(plugin, () -> METRICS.remove(plugin, metrics));
+        return metrics;
+    }
+    
+    /**
+     * Gets the metrics for the provided plugin only if they're enabled.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's metrics or {@code null} if not enabled
+     */
+    static @NullOr ListenerMetrics enabled(Plugin plugin)
+    {
+        @NullOr ListenerMetrics metrics = METRICS.get(plugin);
+        return (metrics != null && metrics.enabled) ? metrics : null;
+    }
+    
+    private final Set<Timer> timers = ConcurrentHashMap.newKeySet();
+    private final Plugin plugin;
+    
+    private volatile boolean enabled = false;
+    
+    private ListenerMetrics(Plugin plugin)
+    {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+    
+    @Override
+    public void enable()
+    {
+        enabled = true;
+    }
+    
+    @Override
+    public void disable()
+    {
+        enabled = false;
+    }
+    
+    /**
+     * Wraps the provided executor so that its invocations are recorded. The executor
+     * must only be invoked with events that are actually handled by the listener.
+     *
+     * @param subscription  the subscription owning the registration, which forgets the timer once closed
+     * @param listener      the listener
+     * @param method        the listener's handler method name or {@code null} if it's an event consumer
+     * @param eventType     the registered event type
+     * @param priority      the registered priority
+     * @param executor      the executor to instrument
+     *
+     * @return the instrumented executor
+     */
+    ExceptionalExecutor instrument(
+        ListenerSubscription subscription,
+        Listener listener,
+        @NullOr String method,
+        Class<? extends Event> eventType,
+        EventPriority priority,
+        ExceptionalExecutor executor
+    ) {
+        Timer timer = new Timer(listener, method, eventType, priority);
+        timers.add(timer);
+        subscription.onClose(() -> timers.remove(timer));
+        
+        return (li, event) ->
+        {
+            if (!enabled)
+            {
+                executor.execute(li, event);
+                return;
+            }
+            
+            boolean cancelled = event instanceof Cancellable && ((Cancellable) event).isCancelled();
+            long start = System.nanoTime();
+            
+            try { executor.execute(li, event); }
+            finally
+            {
+                timer.histogram.record(System.nanoTime() - start);
+                
+                if (!cancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled())
+                {
+                    timer.cancellations.increment();
+                }
+            }
+        };
+    }
+    
+    @Override
+    public List<ListenerStats> listeners()
+    {
+        // Forget about listeners that were unregistered without closing their subscriptions
+        timers.removeIf(timer -> !timer.isRegistered(plugin));
+        
+        List<ListenerStats> stats = new ArrayList<>();
+        for (Timer timer : timers) { stats.add(timer.snapshot()); }
+        return stats;
+    }
+    
+    @Override
+    public void reset()
+    {
+        for (Timer timer : timers)
+        {
+            timer.histogram.reset();
+            timer.cancellations.reset();
+        }
+    }
+    
+    private static final class Timer
+    {
+        final TimingHistogram histogram = new TimingHistogram();
+        final LongAdder cancellations = new LongAdder();
+        
+        final Listener listener;
+        final @NullOr String method;
+        final Class<? extends Event> eventType;
+        final EventPriority priority;
+        
+        Timer(Listener listener, @NullOr String method, Class<? extends Event> eventType, EventPriority priority)
+        {
+            this.listener = listener;
+            this.method = method;
+            this.eventType = eventType;
+            this.priority = priority;
+        }
+        
+        boolean isRegistered(Plugin plugin)
+        {
+            HandlerList handlers = HandlerLists.of(eventType);
+            
+            for (RegisteredListener registered : handlers.getRegisteredListeners())
+            {
+                if (registered.getListener() == listener && registered.getPlugin() == plugin && registered.getPriority() == priority)
+                {
+                    return true;
+                }
+            }
+            
+            return ListenerMultiplexer.isMultiplexed(plugin, listener, handlers, priority);
+        }
+        
+        ListenerStats snapshot()
+        {
+            long[] counts = histogram.counts();
+            long total = 0;
+            for (long count : counts) { total += count; }
+            
+            return new ListenerStats(
+                listener,
+                method,
+                eventType,
+                ListenerOrder.ofPriority(priority),
+                total,
+                cancellations.sum(),
+                TimingHistogram.percentile(counts, total, 50),
+                TimingHistogram.percentile(counts, total, 99),
+                histogram.max()
+            );
+        }
+    }
+}
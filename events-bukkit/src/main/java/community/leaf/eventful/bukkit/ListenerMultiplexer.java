@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * A plugin's multiplexed registrations (channels), which are discarded when the plugin is disabled.
+ */
+final class ListenerMultiplexer implements Multiplexing
+{
+    private static final Map<Plugin, ListenerMultiplexer> MULTIPLEXERS = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the multiplexer for the provided plugin, creating it (disabled) if necessary.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's multiplexer
+     */
+    static ListenerMultiplexer of(Plugin plugin)
+    {
+        return MULTIPLEXERS.computeIfAbsent(Objects.requireNonNull(plugin, "plugin"), ListenerMultiplexer::create);
+    }
+    
+    private static ListenerMultiplexer create(Plugin plugin)
+    {
+        ListenerMultiplexer multiplexer = new ListenerMultiplexer(plugin);
+        EventsImpl.onDisable(plugin, () -> MULTIPLEXERS.remove(plugin, multiplexer));
+        return multiplexer;
+    }
+    
+    /**
+     * Gets the multiplexer for the provided plugin only if it's enabled.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's multiplexer or {@code null} if not enabled
+     */
+    static @NullOr ListenerMultiplexer enabled(Plugin plugin)
+    {
+        @NullOr ListenerMultiplexer multiplexer = MULTIPLEXERS.get(plugin);
+        return (multiplexer != null && multiplexer.isEnabled()) ? multiplexer : null;
+    }
+    
+    /**
+     * Checks whether the listener is multiplexed into the provided handler list by the plugin.
+     *
+     * @param plugin        the plugin
+     * @param listener      the listener
+     * @param handlers      the handler list
+     * @param priority      the priority
+     *
+     * @return {@code true} if the listener is currently multiplexed
+     */
+    static boolean isMultiplexed(Plugin plugin, Listener listener, HandlerList handlers, EventPriority priority)
+    {
+        @NullOr ListenerMultiplexer multiplexer = MULTIPLEXERS.get(plugin);
+        if (multiplexer == null) { return false; }
+        
+        for (Channel channel : multiplexer.channels.values())
+        {
+            if (channel.handlers != handlers || channel.priority != priority) { continue; }
+            
+            for (Entry entry : channel.entries)
+            {
+                if (entry.listener == listener) { return true; }
+            }
+        }
+        
+        return false;
+    }
+    
+    private static final Entry[] EMPTY = new Entry[0];
+    
+    private final Map<List<Object>, Channel> channels = new ConcurrentHashMap<>();
+    
+    private final Plugin plugin;
+    
+    private volatile boolean enabled = false;
+    
+    private ListenerMultiplexer(Plugin plugin)
+    {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+    
+    @Override
+    public void enable()
+    {
+        enabled = true;
+    }
+    
+    @Override
+    public void disable()
+    {
+        enabled = false;
+    }
+    
+    @Override
+    public int registrations()
+    {
+        return channels.size();
+    }
+    
+    /**
+     * Adds the listener to the channel shared by other listeners with the same settings,
+     * registering the channel if necessary. Within a batch, the listener is only added
+     * once the batch is committed.
+     *
+     * @param handlers          the handler list
+     * @param priority          the priority
+     * @param ignoreCancelled   whether to ignore cancelled events
+     * @param listener          the listener
+     * @param executor          the listener's fully decorated executor
+     *
+     * @return a subscription owning the multiplexed listener
+     */
+    Subscription add(HandlerList handlers, EventPriority priority, boolean ignoreCancelled, Listener listener, EventExecutor executor)
+    {
+        Entry entry = new Entry(List.of(handlers, priority, ignoreCancelled), listener, executor);
+        
+        @NullOr RegistrationBatch batch = RegistrationBatch.current();
+        
+        if (batch != null) { batch.defer(entry::attach); }
+        else { entry.attach(); }
+        
+        return entry;
+    }
+    
+    private final class Channel implements Listener
+    {
+        final List<Object> id;
+        final HandlerList handlers;
+        final EventPriority priority;
+        final boolean ignoreCancelled;
+        
+        volatile Entry[] entries = EMPTY;
+        
+        // Guarded by this
+        private @NullOr Subscription registration = null;
+        private boolean closed = false;
+        
+        Channel(List<Object> id)
+        {
+            this.id = id;
+            this.handlers = (HandlerList) id.get(0);
+            this.priority = (EventPriority) id.get(1);
+            this.ignoreCancelled = (Boolean) id.get(2);
+        }
+        
+        void execute(Event event)
+        {
+            for (Entry entry : entries)
+            {
+                // An earlier listener in this channel may have cancelled the event
+                if (ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) { return; }
+                
+                // Mirrors the plugin manager, so one failing listener doesn't affect the rest
+                try { entry.executor.execute(entry.listener, event); }
+                catch (Throwable e)
+                {
+                    plugin.getServer().getLogger().log(
+                        Level.SEVERE,
+                        "Could not pass event " + event.getEventName() + " to " + plugin.getDescription().getFullName(),
+                        e
+                    );
+                }
+            }
+        }
+        
+        /**
+         * Adds the entry, registering the channel if necessary.
+         *
+         * @return {@code false} if the channel already emptied (and closed), so another should be used instead
+         */
+        synchronized boolean add(Entry entry)
+        {
+            if (closed) { return false; }
+            
+            Entry[] updated = Arrays.copyOf(entries, entries.length + 1);
+            updated[entries.length] = entry;
+            entries = updated;
+            
+            if (registration != null) { return true; }
+            
+            try { registration = EventsImpl.registerChannel(plugin, handlers, this, (li, ev) -> execute(ev), priority, ignoreCancelled); }
+            catch (RuntimeException e)
+            {
+                remove(entry);
+                throw e;
+            }
+            
+            return true;
+        }
+        
+        synchronized void remove(Entry entry)
+        {
+            Entry[] current = entries;
+            
+            for (int i = 0; i < current.length; i++)
+            {
+                if (current[i] != entry) { continue; }
+                
+                Entry[] updated = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                entries = updated;
+                break;
+            }
+            
+            if (entries.length > 0) { return; }
+            
+            // Nothing left to invoke: leave the handler list, and let a new channel take over later
+            @NullOr Subscription registered = registration;
+            if (registered != null) { registered.close(); }
+            registration = null;
+            closed = true;
+            channels.remove(id, this);
+        }
+        
+        @Override
+        public String toString()
+        {
+            return "MultiplexedChannel{priority=" + priority + ", ignoreCancelled=" + ignoreCancelled + ", listeners=" + entries.length + "}";
+        }
+    }
+    
+    private final class Entry implements Subscription
+    {
+        final List<Object> channelId;
+        final Listener listener;
+        final EventExecutor executor;
+        
+        // Guarded by this
+        private @NullOr Channel channel = null;
+        private boolean active = true;
+        
+        Entry(List<Object> channelId, Listener listener, EventExecutor executor)
+        {
+            this.channelId = channelId;
+            this.listener = listener;
+            this.executor = executor;
+        }
+        
+        synchronized void attach()
+        {
+            if (!active) { return; } // Closed before its batch was committed
+            
+            // The channel may empty (and close) between looking it up and joining it, so look up its replacement
+            Channel joined;
+            do { joined = channels.computeIfAbsent(channelId, Channel::new); } while (!joined.add(this));
+            
+            channel = joined;
+        }
+        
+        @Override
+        public synchronized boolean isActive()
+        {
+            return active;
+        }
+        
+        @Override
+        public void close()
+        {
+            @NullOr Channel leaving;
+            
+            synchronized (this)
+            {
+                if (!active) { return; }
+                active = false;
+                leaving = channel;
+                channel = null;
+            }
+            
+            if (leaving != null) { leaving.remove(this); }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Snapshot of an instrumented listener's invocation statistics.
+ *
+ * <p>Durations are in nanoseconds. Percentiles are accurate to within roughly 6%,
+ * whereas the max duration is exact.</p>
+ *
+ * @see EventMetrics#listeners()
+ */
+public final class ListenerStats
+{
+    private final Listener listener;
+    private final @NullOr String method;
+    private final Class<? extends Event> eventType;
+    private final ListenerOrder order;
+    private final long invocations;
+    private final long cancellations;
+    private final long p50;
+    private final long p99;
+    private final long max;
+    
+    ListenerStats(
+        Listener listener,
+        @NullOr String method,
+        Class<? extends Event> eventType,
+        ListenerOrder order,
+        long invocations,
+        long cancellations,
+        long p50,
+        long p99,
+        long max
+    ) {
+        this.listener = listener;
+        this.method = method;
+        this.eventType = eventType;
+        this.order = order;
+        this.invocations = invocations;
+        this.cancellations = cancellations;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+    }
+    
+    /**
+     * Gets the listener (an event consumer or a listener with handler methods).
+     *
+     * @return the listener
+     */
+    public Listener listener()
+    {
+        return listener;
+    }
+    
+    /**
+     * Gets the name of the listener's handler method, which distinguishes
+     * handler methods of the same listener from each other.
+     *
+     * @return the method name or {@code null} if the listener is an event consumer
+     */
+    public @NullOr String method()
+    {
+        return method;
+    }
+    
+    /**
+     * Gets the event type that the listener was registered for.
+     *
+     * @return the event type
+     */
+    public Class<? extends Event> eventType()
+    {
+        return eventType;
+    }
+    
+    /**
+     * Gets the order that the listener was registered at.
+     *
+     * @return the listener order
+     */
+    public ListenerOrder order()
+    {
+        return order;
+    }
+    
+    /**
+     * Gets the number of times the listener was invoked.
+     *
+     * @return the number of invocations
+     */
+    public long invocations()
+    {
+        return invocations;
+    }
+    
+    /**
+     * Gets the number of events that were cancelled by the listener
+     * (not cancelled before it was invoked, but cancelled afterwards).
+     *
+     * @return the number of cancellations caused
+     */
+    public long cancellations()
+    {
+        return cancellations;
+    }
+    
+    /**
+     * Gets the median invocation duration.
+     *
+     * @return the 50th percentile duration in nanoseconds
+     */
+    public long p50()
+    {
+        return p50;
+    }
+    
+    /**
+     * Gets the 99th percentile invocation duration.
+     *
+     * @return the 99th percentile duration in nanoseconds
+     */
+    public long p99()
+    {
+        return p99;
+    }
+    
+    /**
+     * Gets the longest invocation duration.
+     *
+     * @return the max duration in nanoseconds
+     */
+    public long max()
+    {
+        return max;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ListenerStats{" +
+            "listener=" + listener.getClass().getName() +
+            ((method == null) ? "" : ", method=" + method) +
+            ", eventType=" + eventType.getSimpleName() +
+            ", order=" + order +
+            ", invocations=" + invocations +
+            ", cancellations=" + cancellations +
+            ", p50=" + p50 +
+            ", p99=" + p99 +
+            ", max=" + max +
+            "}";
+    }
+}
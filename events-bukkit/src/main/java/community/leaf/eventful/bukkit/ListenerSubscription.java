@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.RegisteredListener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns the registered listeners created by a single registration call.
+ *
+ * <p>Closing removes each registered listener from its own handler list, which only
+ * scans listeners of the same priority in that list (Bukkit keeps them in lists).</p>
+ */
+final class ListenerSubscription implements Subscription
+{
+    // Only modified while registering, before the subscription is published
+    private final List<HandlerList> handlers = new ArrayList<>(1);
+    private final List<RegisteredListener> registrations = new ArrayList<>(1);
+    private final List<Subscription> multiplexed = new ArrayList<>(0);
+    private final List<Runnable> closers = new ArrayList<>(0);
+    
+    private volatile boolean active = true;
+    
+    void add(HandlerList handlers, RegisteredListener registered)
+    {
+        this.handlers.add(handlers);
+        this.registrations.add(registered);
+    }
+    
+    void add(Subscription multiplexed)
+    {
+        this.multiplexed.add(multiplexed);
+    }
+    
+    /**
+     * Runs the provided action once the subscription is closed,
+     * to release anything kept for the registration's sake.
+     *
+     * @param action    the action
+     */
+    void onClose(Runnable action)
+    {
+        closers.add(action);
+    }
+    
+    @Override
+    public boolean isActive()
+    {
+        return active;
+    }
+    
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            if (!active) { return; }
+            active = false;
+        }
+        
+        // Registrations still pending in a batch on this thread never reach their handler lists
+        @NullOr RegistrationBatch batch = RegistrationBatch.current();
+        
+        for (int i = 0; i < registrations.size(); i++)
+        {
+            HandlerList list = handlers.get(i);
+            RegisteredListener registered = registrations.get(i);
+            
+            if (batch == null || !batch.remove(list, registered)) { list.unregister(registered); }
+        }
+        
+        for (Subscription subscription : multiplexed) { subscription.close(); }
+        for (Runnable closer : closers) { closer.run(); }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * A compile-time registration table for a listener class, generated by Eventful's
+ * annotation processor ({@code events-processor}).
+ *
+ * <p>Tables are named after the listener's binary name followed by {@link #SUFFIX}
+ * and live in the same package. When {@link Events#register(Listener)} finds a table
+ * for a listener's class, the table's typed invokers are used instead of scanning
+ * the class and reflectively invoking its methods. Otherwise, registration falls
+ * back to reflection.</p>
+ *
+ * <p><b>Note:</b> this interface is only meant to be implemented by generated code.</p>
+ *
+ * @param <L>   listener type
+ */
+public interface ListenerTable<L extends Listener>
+{
+    /**
+     * Suffix appended to a listener's binary name to get the name of its table.
+     */
+    String SUFFIX = "$$EventfulTable";
+    
+    /**
+     * Describes every listener method in the table.
+     *
+     * @param methods   receives each listener method
+     */
+    void describe(Methods<L> methods);
+    
+    /**
+     * Receives listener methods described by a table.
+     *
+     * @param <L>   listener type
+     */
+    interface Methods<L extends Listener>
+    {
+        /**
+         * Receives a listener method.
+         *
+         * @param signature         a description of the method (for error messages)
+         * @param event             the event type
+         * @param priority          the priority
+         * @param ignoreCancelled   whether to ignore cancelled events or not
+         * @param invoker           directly invokes the method
+         * @param <E>               event type
+         */
+        <E extends Event> void method(
+            String signature,
+            Class<E> event,
+            EventPriority priority,
+            boolean ignoreCancelled,
+            Invoker<L, E> invoker
+        );
+    }
+    
+    /**
+     * Invokes a listener method.
+     *
+     * @param <L>   listener type
+     * @param <E>   event type
+     */
+    @FunctionalInterface
+    interface Invoker<L extends Listener, E extends Event>
+    {
+        /**
+         * Invokes the method on the provided listener.
+         *
+         * @param listener  the listener
+         * @param event     the event
+         *
+         * @throws Throwable    anything thrown by the method
+         */
+        void invoke(L listener, E event) throws Throwable;
+    }
+}
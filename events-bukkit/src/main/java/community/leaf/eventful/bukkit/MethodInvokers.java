@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates invokers for event listener methods.
+ */
+final class MethodInvokers
+{
+    private MethodInvokers() { throw new UnsupportedOperationException(); }
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(BiConsumer.class);
+    
+    private static final MethodType ERASED_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    private static final MethodType EXECUTOR_TYPE = MethodType.methodType(void.class, Listener.class, Event.class);
+    
+    /**
+     * Creates an invoker for the provided listener method, preferring a generated
+     * class that calls the method directly. If one cannot be generated, the
+     * invoker falls back to an exactly-typed method handle (which also supports
+     * static methods).
+     *
+     * @param method    the listener method, which must accept a single event parameter
+     *
+     * @return an invoker that calls the method
+     */
+    static EventsImpl.ExceptionalExecutor create(Method method)
+    {
+        Objects.requireNonNull(method, "method");
+        
+        if (!Modifier.isStatic(method.getModifiers()))
+        {
+            try
+            {
+                BiConsumer<Object, Object> direct = direct(method);
+                return direct::accept;
+            }
+            catch (Throwable ignored) {} // Fall back to a method handle
+        }
+        
+        MethodHandle handle = fallback(method);
+        return handle::invokeExact;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> direct(Method method) throws Throwable
+    {
+        Class<?> declaring = method.getDeclaringClass();
+        
+        // Generate the invoker within the declaring class so that it can call
+        // non-public methods and see classes from the listener's class loader.
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaring, LOOKUP);
+        MethodHandle target = lookup.unreflect(method);
+        
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "accept",
+            FACTORY_TYPE,
+            ERASED_TYPE,
+            target,
+            MethodType.methodType(void.class, declaring, method.getParameterTypes()[0])
+        );
+        
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+    
+    private static MethodHandle fallback(Method method)
+    {
+        method.setAccessible(true);
+        MethodHandle handle;
+        
+        try { handle = LOOKUP.unreflect(method); }
+        catch (IllegalAccessException e) { throw new RuntimeException(e); }
+        
+        if (Modifier.isStatic(method.getModifiers()))
+        {
+            handle = MethodHandles.dropArguments(handle, 0, Listener.class);
+        }
+        
+        return handle.asType(EXECUTOR_TYPE);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+/**
+ * Opt-in multiplexing for a plugin's event listeners, so that every listener for the same
+ * handler list, {@link ListenerOrder} and {@link CancellationPolicy} shares one registered
+ * listener in Bukkit's handler list. The shared registration invokes its listeners from a
+ * copy-on-write array, so subscribing and closing them doesn't touch (or re-bake) the
+ * handler list, and dispatch loops over far fewer registered listeners.
+ *
+ * <p>Only listeners registered (through Eventful) while multiplexing is enabled are
+ * multiplexed; disabling it doesn't affect them. Each multiplexed listener keeps its own
+ * metrics, circuit breaker and exception handling, but server timings are only recorded
+ * for the shared registration.</p>
+ *
+ * <p><b>Note:</b> multiplexing changes the order of listeners that share a {@link ListenerOrder}.
+ * Multiplexed listeners run in the order they were multiplexed, but all of them run at their
+ * shared registration's position: where the first of them was registered relative to any
+ * listeners that aren't multiplexed (including those of other plugins). Only the order of
+ * listeners across different {@code ListenerOrder} values is unaffected.</p>
+ *
+ * <p><b>Note:</b> close subscriptions to unregister multiplexed listeners. Unregistering a
+ * shared registration directly (e.g. via {@code HandlerList.unregisterAll(plugin)} while the
+ * plugin stays enabled) silences every listener sharing it.</p>
+ *
+ * @see Events#multiplexing()
+ */
+public interface Multiplexing
+{
+    /**
+     * Checks whether multiplexing is enabled.
+     *
+     * @return {@code true} if new listeners are multiplexed
+     */
+    boolean isEnabled();
+    
+    /**
+     * Enables multiplexing for listeners registered from now on.
+     */
+    void enable();
+    
+    /**
+     * Disables multiplexing for listeners registered from now on.
+     */
+    void disable();
+    
+    /**
+     * Gets the number of shared registrations currently in handler lists.
+     *
+     * @return the number of shared registrations
+     */
+    int registrations();
+}
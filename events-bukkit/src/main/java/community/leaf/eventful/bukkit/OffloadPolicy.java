@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Settings for listeners that are offloaded to another thread.
+ *
+ * <p>Policies are immutable: each {@code with} method returns a new policy.</p>
+ *
+ * @see Events.Builder#offload(java.util.function.Function, OffloadPolicy)
+ */
+public final class OffloadPolicy
+{
+    /**
+     * What to do with an event when its stripe's queue is full.
+     */
+    public enum Overflow
+    {
+        /**
+         * Discards the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Discards the oldest queued event to make room for the new event.
+         */
+        DROP_OLDEST,
+        /**
+         * Fails the listener with a {@link RejectedExecutionException}, which is
+         * reported like any other exception thrown by a listener.
+         */
+        REJECT
+    }
+    
+    private static final OffloadPolicy DEFAULTS = new OffloadPolicy(64, 1024, Overflow.REJECT, null);
+    
+    /**
+     * Gets the default policy: 64 stripes, each queueing up to 1024 events and rejecting
+     * any more, running on the default executor.
+     *
+     * <p>The default executor uses virtual threads when running on Java 21 or newer,
+     * otherwise a bounded pool of daemon threads shared by all offloaded listeners.</p>
+     *
+     * @return the default policy
+     */
+    public static OffloadPolicy defaults()
+    {
+        return DEFAULTS;
+    }
+    
+    private final int stripes;
+    private final int queueCapacity;
+    private final Overflow overflow;
+    private final @NullOr Executor executor;
+    
+    private OffloadPolicy(int stripes, int queueCapacity, Overflow overflow, @NullOr Executor executor)
+    {
+        this.stripes = stripes;
+        this.queueCapacity = queueCapacity;
+        this.overflow = overflow;
+        this.executor = executor;
+    }
+    
+    /**
+     * Sets the number of stripes, i.e. how many keys' events may be handled in parallel.
+     * Events with the same key always share a stripe, so they're handled in order.
+     *
+     * @param stripes   number of stripes (rounded up to a power of two)
+     *
+     * @return a new policy
+     */
+    public OffloadPolicy withStripes(int stripes)
+    {
+        if (stripes <= 0 || stripes > (1 << 16)) { throw new IllegalArgumentException("Invalid stripes: " + stripes); }
+        int rounded = (stripes == 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        return new OffloadPolicy(rounded, queueCapacity, overflow, executor);
+    }
+    
+    /**
+     * Sets the maximum number of events queued per stripe.
+     *
+     * @param queueCapacity     the queue capacity
+     *
+     * @return a new policy
+     */
+    public OffloadPolicy withQueueCapacity(int queueCapacity)
+    {
+        if (queueCapacity <= 0) { throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity); }
+        return new OffloadPolicy(stripes, queueCapacity, overflow, executor);
+    }
+    
+    /**
+     * Sets what to do with events when a stripe's queue is full.
+     *
+     * @param overflow  the overflow policy
+     *
+     * @return a new policy
+     */
+    public OffloadPolicy withOverflow(Overflow overflow)
+    {
+        return new OffloadPolicy(stripes, queueCapacity, Objects.requireNonNull(overflow, "overflow"), executor);
+    }
+    
+    /**
+     * Sets the executor that runs offloaded listeners. Stripes are layered on top of
+     * the executor, so it may run tasks in any order or on any number of threads.
+     *
+     * @param executor  the executor
+     *
+     * @return a new policy
+     */
+    public OffloadPolicy withExecutor(Executor executor)
+    {
+        return new OffloadPolicy(stripes, queueCapacity, overflow, Objects.requireNonNull(executor, "executor"));
+    }
+    
+    /**
+     * Gets the number of stripes.
+     *
+     * @return the number of stripes
+     */
+    public int stripes()
+    {
+        return stripes;
+    }
+    
+    /**
+     * Gets the maximum number of events queued per stripe.
+     *
+     * @return the queue capacity
+     */
+    public int queueCapacity()
+    {
+        return queueCapacity;
+    }
+    
+    /**
+     * Gets what happens to events when a stripe's queue is full.
+     *
+     * @return the overflow policy
+     */
+    public Overflow overflow()
+    {
+        return overflow;
+    }
+    
+    /**
+     * Gets the executor that runs offloaded listeners.
+     *
+     * @return the executor or {@code null} to use the default executor
+     */
+    public @NullOr Executor executor()
+    {
+        return executor;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "OffloadPolicy{" +
+            "stripes=" + stripes +
+            ", queueCapacity=" + queueCapacity +
+            ", overflow=" + overflow +
+            ", executor=" + ((executor == null) ? "default" : executor) +
+            "}";
+    }
+}
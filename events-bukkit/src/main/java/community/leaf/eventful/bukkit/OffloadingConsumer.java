@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import community.leaf.eventful.bukkit.EventsImpl.ExceptionalExecutor;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+
+/**
+ * Hands events to the wrapped consumer on an executor, keeping events with the
+ * same key in order while events with different keys may be handled in parallel.
+ *
+ * <p>Events are queued on a stripe chosen by their key's hash. Each stripe runs on
+ * the executor one event at a time, and only while it has events queued, so idle
+ * stripes cost nothing and no stripe monopolizes a thread for long.</p>
+ *
+ * <p>Since events are delivered after they've been called, deliveries (rather than
+ * enqueuing) are what the listener's metrics and circuit breaker see, and exceptions
+ * are reported through the consumer's own {@link ExceptionGuard}. Events still queued
+ * once the consumer's subscription is closed are discarded.</p>
+ *
+ * @param <E>   event type
+ */
+final class OffloadingConsumer<E extends Event> implements DeferredConsumer<E>
+{
+    // Events handled per stripe before giving other stripes a turn on the executor
+    private static final int BATCH_SIZE = 64;
+    
+    /**
+     * Gets the shared executor for offloaded work, which uses virtual threads when
+     * they're available (Java 21+), otherwise a bounded pool of daemon threads.
+     *
+     * @return the default executor
+     */
+    static Executor defaultExecutor()
+    {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+    
+    private final Plugin plugin;
+    private final Function<? super E, ?> key;
+    private final EventConsumer<E> consumer;
+    private final OffloadPolicy policy;
+    private final Executor executor;
+    private final Stripe[] stripes;
+    private final ExceptionGuard guard;
+    
+    private volatile ExceptionalExecutor delivery;
+    private volatile @NullOr Subscription subscription = null;
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    OffloadingConsumer(Plugin plugin, Function<? super E, ?> key, OffloadPolicy policy, EventConsumer<E> consumer)
+    {
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.key = Objects.requireNonNull(key, "key");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.consumer = Objects.requireNonNull(consumer, "consumer");
+        
+        @NullOr Executor configured = policy.executor();
+        this.executor = (configured != null) ? configured : defaultExecutor();
+        
+        this.stripes = new OffloadingConsumer.Stripe[policy.stripes()];
+        for (int i = 0; i < stripes.length; i++) { stripes[i] = new Stripe(); }
+        
+        this.guard = new ExceptionGuard(plugin, consumer);
+        this.delivery = (li, event) -> consumer.accept((E) event);
+    }
+    
+    @Override
+    public void instrument(UnaryOperator<ExceptionalExecutor> decoration)
+    {
+        this.delivery = decoration.apply(delivery);
+    }
+    
+    @Override
+    public void bind(Subscription subscription)
+    {
+        this.subscription = subscription;
+    }
+    
+    @Override
+    public void accept(E event)
+    {
+        @NullOr Object k = key.apply(event);
+        int hash = (k == null) ? 0 : k.hashCode();
+        stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)].offer(event);
+    }
+    
+    private void deliver(E event)
+    {
+        if (!plugin.isEnabled()) { return; } // Disabled while the event was queued
+        
+        @NullOr Subscription owner = subscription;
+        if (owner != null && !owner.isActive()) { return; } // Closed while the event was queued
+        
+        try { delivery.execute(consumer, event); }
+        catch (Throwable throwable) { EventsImpl.uncaught(plugin, consumer, guard, event, throwable); }
+    }
+    
+    private final class Stripe implements Runnable
+    {
+        // Guarded by this
+        private final ArrayDeque<E> queue = new ArrayDeque<>();
+        private boolean running = false;
+        
+        void offer(E event)
+        {
+            synchronized (this)
+            {
+                if (queue.size() >= policy.queueCapacity())
+                {
+                    switch (policy.overflow())
+                    {
+                        case DROP_NEWEST:
+                            return;
+                        case DROP_OLDEST:
+                            queue.pollFirst();
+                            break;
+                        case REJECT:
+                            throw new RejectedExecutionException(
+                                "Offloaded " + event.getEventName() + " queue is full (capacity: " + policy.queueCapacity() + ")"
+                            );
+                    }
+                }
+                
+                queue.addLast(event);
+                if (running) { return; }
+                running = true;
+            }
+            
+            submit();
+        }
+        
+        private void submit()
+        {
+            try { executor.execute(this); }
+            catch (RejectedExecutionException e)
+            {
+                int discarded;
+                
+                synchronized (this)
+                {
+                    discarded = queue.size();
+                    queue.clear();
+                    running = false;
+                }
+                
+                plugin.getLogger().log(Level.WARNING, "Offload executor rejected " + discarded + " queued event(s)", e);
+            }
+        }
+        
+        @Override
+        public void run()
+        {
+            for (int i = 0; i < BATCH_SIZE; i++)
+            {
+                @NullOr E event;
+                
+                synchronized (this)
+                {
+                    event = queue.pollFirst();
+                    
+                    if (event == null)
+                    {
+                        running = false;
+                        return;
+                    }
+                }
+                
+                deliver(event);
+            }
+            
+            // Still running: requeue, so that events keep their order but other stripes get a turn
+            submit();
+        }
+    }
+    
+    private static final class DefaultExecutorHolder
+    {
+        static final Executor EXECUTOR = create();
+        
+        private static Executor create()
+        {
+            // Eventful targets Java 11, so virtual threads (Java 21+) are only used if they're available at runtime
+            try { return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null); }
+            catch (ReflectiveOperationException | RuntimeException ignored) {}
+            
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            AtomicInteger count = new AtomicInteger();
+            
+            ThreadFactory factory = runnable ->
+            {
+                Thread thread = new Thread(runnable, "Eventful Offload #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            
+            // Queue is effectively bounded by the total number of stripes (each queues at most one task)
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
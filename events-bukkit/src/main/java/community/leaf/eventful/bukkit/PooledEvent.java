@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+
+/**
+ * An event that's reused across dispatches via an {@link EventPool},
+ * for high-frequency events that would otherwise allocate on every call.
+ *
+ * <p>Pooled events are only valid while they're being called: listeners must
+ * not retain them (or hand them to other threads) past dispatch. Accessors
+ * should call {@link #checkNotReleased()} so that retained events are caught,
+ * reliably so while the pool is {@link EventPool#debug(boolean) debugging}.</p>
+ *
+ * <p>For the same reason, pooled events can't be delivered to listeners after they've
+ * been called: they can't be {@link Events.Builder#coalesce(java.util.function.Function) coalesced}
+ * or {@link Events.Builder#offload(java.util.function.Function) offloaded}, and
+ * {@link Events#stream(Class, ListenerOrder, CancellationPolicy, java.util.function.Function, int, StreamOverflow) streaming}
+ * them requires a snapshot other than the event itself. Uncaught exceptions thrown while
+ * calling them are reported with the event while it's still being called, and
+ * {@link community.leaf.eventful.bukkit.events.SuppressedEventExceptionsEvent summaries}
+ * of suppressed exceptions never include it.</p>
+ *
+ * @see EventDispatcher#call(EventPool, java.util.function.Consumer)
+ */
+public abstract class PooledEvent extends Event
+{
+    // Volatile, so that threads the event was (wrongly) handed to also see it released
+    private volatile boolean released = false;
+    
+    /**
+     * Constructs a synchronous pooled event.
+     */
+    protected PooledEvent()
+    {
+        super();
+    }
+    
+    /**
+     * Constructs a pooled event.
+     *
+     * @param async     whether the event is called asynchronously
+     */
+    protected PooledEvent(boolean async)
+    {
+        super(async);
+    }
+    
+    /**
+     * Resets the event's state after it has been called, so that nothing from this
+     * dispatch (such as references to players or a cancelled flag) carries over
+     * into the next one.
+     */
+    protected abstract void reset();
+    
+    /**
+     * Checks whether the event was returned to its pool after being called.
+     *
+     * @return {@code true} if the event has been released
+     */
+    public final boolean isReleased()
+    {
+        return released;
+    }
+    
+    /**
+     * Ensures that the event hasn't been released, i.e. that it's still being called.
+     *
+     * @throws IllegalStateException if the event was retained past dispatch
+     */
+    protected final void checkNotReleased()
+    {
+        if (released)
+        {
+            throw new IllegalStateException(
+                getEventName() + " was used after being called (pooled events must not be retained past dispatch)"
+            );
+        }
+    }
+    
+    void borrowed()
+    {
+        released = false;
+    }
+    
+    void released()
+    {
+        reset();
+        released = true;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.RegisteredListener;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Collects registrations made on the current thread, then commits them grouped by handler list.
+ */
+final class RegistrationBatch
+{
+    private static final ThreadLocal<@NullOr RegistrationBatch> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * Gets the batch open on the current thread.
+     *
+     * @return the current batch or {@code null} if there isn't one
+     */
+    static @NullOr RegistrationBatch current()
+    {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Runs the provided registrations in a batch. Nested batches join the enclosing
+     * batch, which commits everything once it completes.
+     *
+     * @param events            the events instance passed to registrations
+     * @param registrations     makes registrations
+     *
+     * @return a summary of the batch
+     */
+    static BatchReport run(Events events, Consumer<? super Events> registrations)
+    {
+        @NullOr RegistrationBatch enclosing = CURRENT.get();
+        
+        if (enclosing != null)
+        {
+            int before = enclosing.size;
+            registrations.accept(events);
+            return new BatchReport(enclosing.size - before, 0);
+        }
+        
+        RegistrationBatch batch = new RegistrationBatch();
+        CURRENT.set(batch);
+        
+        try
+        {
+            registrations.accept(events);
+            batch.attach(); // Still current, so that newly needed shared registrations join the batch
+        }
+        finally { CURRENT.remove(); } // Registrations are discarded if anything was thrown
+        
+        return batch.commit();
+    }
+    
+    private final Map<HandlerList, List<RegisteredListener>> pending = new IdentityHashMap<>();
+    private final List<Runnable> deferred = new ArrayList<>();
+    private int size = 0;
+    
+    private RegistrationBatch() {}
+    
+    /**
+     * Adds a registered listener to the batch, to be registered to the handler list once committed.
+     *
+     * @param handlers      the handler list
+     * @param registered    the registered listener
+     */
+    void add(HandlerList handlers, RegisteredListener registered)
+    {
+        pending.computeIfAbsent(handlers, k -> new ArrayList<>()).add(registered);
+        size++;
+    }
+    
+    /**
+     * Removes a pending registered listener from the batch.
+     *
+     * @param handlers      the handler list
+     * @param registered    the registered listener
+     *
+     * @return {@code true} if the listener was pending and is now removed
+     */
+    boolean remove(HandlerList handlers, RegisteredListener registered)
+    {
+        @NullOr List<RegisteredListener> listeners = pending.get(handlers);
+        if (listeners == null || !listeners.remove(registered)) { return false; }
+        size--;
+        return true;
+    }
+    
+    /**
+     * Defers attaching a listener to a shared (multiplexed or keyed) registration until the batch is committed.
+     *
+     * @param attachment    attaches the listener
+     */
+    void defer(Runnable attachment)
+    {
+        deferred.add(attachment);
+        size++;
+    }
+    
+    private void attach()
+    {
+        int listeners = size;
+        for (Runnable attachment : deferred) { attachment.run(); }
+        size = listeners; // Shared registrations aren't listeners in their own right
+    }
+    
+    private BatchReport commit()
+    {
+        int bakes = 0;
+        
+        for (Map.Entry<HandlerList, List<RegisteredListener>> entry : pending.entrySet())
+        {
+            if (entry.getValue().isEmpty()) { continue; } // Every pending listener was removed
+            
+            HandlerList handlers = entry.getKey();
+            bakes++;
+            
+            // Concurrent (async) dispatchers wait here instead of baking partial registrations
+            synchronized (handlers)
+            {
+                handlers.registerAll(entry.getValue());
+                handlers.bake();
+            }
+        }
+        
+        return new BatchReport(size, bakes);
+    }
+}
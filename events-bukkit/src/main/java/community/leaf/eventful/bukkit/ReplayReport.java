@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import java.time.Duration;
+
+/**
+ * Summary of a replayed recording.
+ *
+ * @see EventReplayer
+ */
+public final class ReplayReport
+{
+    private final long replayed;
+    private final long skipped;
+    private final long diverged;
+    private final Duration elapsed;
+    
+    ReplayReport(long replayed, long skipped, long diverged, Duration elapsed)
+    {
+        this.replayed = replayed;
+        this.skipped = skipped;
+        this.diverged = diverged;
+        this.elapsed = elapsed;
+    }
+    
+    /**
+     * Gets the number of events that were replayed.
+     *
+     * @return the number of replayed events
+     */
+    public long replayed()
+    {
+        return replayed;
+    }
+    
+    /**
+     * Gets the number of recorded events that were skipped because no codec was provided for their type.
+     *
+     * @return the number of skipped events
+     */
+    public long skipped()
+    {
+        return skipped;
+    }
+    
+    /**
+     * Gets the number of replayed events whose outcome (whether they were cancelled)
+     * differs from the recorded outcome.
+     *
+     * @return the number of diverged events
+     */
+    public long diverged()
+    {
+        return diverged;
+    }
+    
+    /**
+     * Gets the time taken to replay the recording.
+     *
+     * @return the elapsed time
+     */
+    public Duration elapsed()
+    {
+        return elapsed;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ReplayReport{replayed=" + replayed + ", skipped=" + skipped + ", diverged=" + diverged + ", elapsed=" + elapsed + "}";
+    }
+}
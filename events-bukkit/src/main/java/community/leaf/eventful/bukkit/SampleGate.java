@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Lets through a fixed number of events out of every window of events, in order:
+ * sampling 1 out of 100 passes the 1st, 101st, 201st event and so on.
+ */
+final class SampleGate implements Predicate<Event>
+{
+    private final AtomicLong counter = new AtomicLong();
+    private final int events;
+    private final int outOf;
+    
+    SampleGate(int events, int outOf)
+    {
+        if (events <= 0 || events > outOf)
+        {
+            throw new IllegalArgumentException("Invalid sample: " + events + " out of " + outOf);
+        }
+        
+        this.events = events;
+        this.outOf = outOf;
+    }
+    
+    @Override
+    public boolean test(Event event)
+    {
+        return (events == outOf) || Math.floorMod(counter.getAndIncrement(), outOf) < events;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A subscription that closes itself once its listener has handled an event
+ * or once it expires, whichever happens first.
+ */
+final class ScopedSubscription implements Subscription
+{
+    private final AtomicBoolean active = new AtomicBoolean(true);
+    
+    private volatile @NullOr Subscription registration = null;
+    private volatile TimingWheel.@NullOr Timeout expiry = null;
+    
+    /**
+     * Wraps the listener so that it handles at most one event, then closes this subscription.
+     *
+     * @param listener  the listener
+     * @param <E>       event type
+     *
+     * @return the wrapped listener
+     */
+    <E extends Event> EventConsumer<E> once(EventConsumer<E> listener)
+    {
+        AtomicBoolean handled = new AtomicBoolean(false);
+        
+        return event ->
+        {
+            if (!handled.compareAndSet(false, true)) { return; } // Concurrent (async) events race for it
+            
+            try { listener.accept(event); }
+            finally { close(); }
+        };
+    }
+    
+    /**
+     * Binds the registration owned by this subscription.
+     *
+     * @param registration  the registration
+     */
+    void bind(Subscription registration)
+    {
+        this.registration = registration;
+        if (!active.get()) { registration.close(); } // Closed while registering
+    }
+    
+    /**
+     * Closes this subscription after the provided number of ticks.
+     *
+     * @param ticks     the tick clock
+     * @param after     number of ticks until expiry
+     */
+    void expire(ServerTicks ticks, long after)
+    {
+        TimingWheel.Timeout timeout = ticks.schedule(after, this::close);
+        this.expiry = timeout;
+        if (!active.get()) { timeout.cancel(); }
+    }
+    
+    @Override
+    public boolean isActive()
+    {
+        return active.get();
+    }
+    
+    @Override
+    public void close()
+    {
+        if (!active.compareAndSet(true, false)) { return; }
+        
+        @NullOr Subscription registered = registration;
+        if (registered != null) { registered.close(); }
+        
+        TimingWheel.@NullOr Timeout timeout = expiry;
+        if (timeout != null) { timeout.cancel(); }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The on-disk format of recorded events: a directory of fixed-size, memory-mapped segments.
+ *
+ * <p>Each segment starts with a header (magic, version, the recording's start time, and the
+ * names of the recorded event types), followed by records:</p>
+ *
+ * <pre>
+ * int   record length (header included; written last, so zero marks the end)
+ * short event type index (into the segment header's type names)
+ * byte  outcome flags (cancelled, asynchronous)
+ * long  nanoseconds since the recording started
+ * ...   encoded event
+ * </pre>
+ *
+ * <p>Unused space at the end of a segment is left zeroed.</p>
+ */
+final class SegmentLog
+{
+    private SegmentLog() { throw new UnsupportedOperationException(); }
+    
+    static final int MAGIC = 0x45564C47; // "EVLG"
+    static final short VERSION = 1;
+    
+    static final String EXTENSION = ".evlog";
+    
+    static final int RECORD_HEADER_BYTES = Integer.BYTES + Short.BYTES + Byte.BYTES + Long.BYTES;
+    
+    static final int TYPE_OFFSET = Integer.BYTES;
+    static final int FLAGS_OFFSET = TYPE_OFFSET + Short.BYTES;
+    static final int NANOS_OFFSET = FLAGS_OFFSET + Byte.BYTES;
+    
+    static final byte CANCELLED = 1;
+    static final byte ASYNCHRONOUS = 1 << 1;
+    
+    // Unmaps buffers eagerly (via Unsafe.invokeCleaner, Java 9+) rather than whenever they're collected
+    private static final @NullOr Consumer<ByteBuffer> UNMAPPER = unmapper();
+    
+    private static @NullOr Consumer<ByteBuffer> unmapper()
+    {
+        try
+        {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            
+            Object unsafe = field.get(null);
+            Method invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            
+            return buffer ->
+            {
+                try { invokeCleaner.invoke(unsafe, buffer); }
+                catch (ReflectiveOperationException ignored) {} // Left to the garbage collector
+            };
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            return null;
+        }
+    }
+    
+    static Path segment(Path directory, int index)
+    {
+        return directory.resolve(String.format("%08d%s", index, EXTENSION));
+    }
+    
+    /**
+     * Lists the directory's segments in order.
+     */
+    static List<Path> segments(Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Creates then maps a new segment, leaving the buffer positioned after its header.
+     */
+    static MappedByteBuffer create(Path path, int size, long startEpochMillis, List<String> types) throws IOException
+    {
+        MappedByteBuffer buffer;
+        
+        try (FileChannel channel = FileChannel.open(
+            path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) types.size()).putLong(startEpochMillis);
+        
+        for (String type : types)
+        {
+            byte[] name = type.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length).put(name);
+        }
+        
+        return buffer;
+    }
+    
+    /**
+     * Flushes a segment to disk then unmaps it. The buffer must not be used afterwards.
+     */
+    static void release(MappedByteBuffer buffer)
+    {
+        buffer.force();
+        if (UNMAPPER != null) { UNMAPPER.accept(buffer); }
+    }
+    
+    /**
+     * Maps an existing segment read-only, leaving the buffer positioned after its header.
+     */
+    static MappedByteBuffer open(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            
+            if (buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != MAGIC)
+            {
+                throw new IOException("Not an event log segment: " + path);
+            }
+            
+            short version = buffer.getShort();
+            if (version != VERSION) { throw new IOException("Unsupported event log version " + version + ": " + path); }
+            
+            return buffer;
+        }
+    }
+    
+    /**
+     * Reads the remainder of a segment header (after {@link #open(Path)}).
+     */
+    static List<String> types(ByteBuffer buffer)
+    {
+        int count = buffer.getShort();
+        buffer.getLong(); // start time
+        
+        List<String> types = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++)
+        {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            types.add(new String(name, StandardCharsets.UTF_8));
+        }
+        
+        return types;
+    }
+    
+    /**
+     * Gets the total length of the record at the buffer's position, or zero if there are no more records.
+     */
+    static int next(ByteBuffer buffer)
+    {
+        if (buffer.remaining() < RECORD_HEADER_BYTES) { return 0; }
+        
+        int length = buffer.getInt(buffer.position());
+        return (length < RECORD_HEADER_BYTES || length > buffer.remaining()) ? 0 : length;
+    }
+}
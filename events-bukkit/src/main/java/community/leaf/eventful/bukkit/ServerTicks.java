@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts server ticks for a plugin using a single repeating task.
+ *
+ * <p>Bukkit doesn't expose the current tick, so each plugin that needs it gets one
+ * clock, which is discarded when the plugin is disabled (along with its task and
+ * any pending timeouts).</p>
+ */
+final class ServerTicks
+{
+    private static final Map<Plugin, ServerTicks> CLOCKS = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the tick clock for the provided plugin, starting it if necessary.
+     *
+     * @param plugin    the plugin
+     *
+     * @return the plugin's tick clock
+     */
+    static ServerTicks of(Plugin plugin)
+    {
+        return CLOCKS.computeIfAbsent(Objects.requireNonNull(plugin, "plugin"), ServerTicks::start);
+    }
+    
+    private static ServerTicks start(Plugin plugin)
+    {
+        ServerTicks clock = new ServerTicks(plugin);
+        
+        plugin.getServer().getScheduler().runTaskTimer(plugin, clock::tick, 1L, 1L);
+        
+        // Disabling a plugin cancels its tasks, so the clock must be restarted if it's enabled again
+        EventsImpl.onDisable(plugin, () -> CLOCKS.remove(plugin, clock));
+        
+        return clock;
+    }
+    
+    private final TimingWheel wheel;
+    
+    // Only written by the main thread
+    private volatile long current = 0;
+    
+    private ServerTicks(Plugin plugin)
+    {
+        this.wheel = new TimingWheel(plugin);
+    }
+    
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void tick()
+    {
+        current++;
+        wheel.advance(current);
+    }
+    
+    /**
+     * Gets the number of ticks elapsed since the clock was started.
+     *
+     * @return the current tick
+     */
+    long current()
+    {
+        return current;
+    }
+    
+    /**
+     * Schedules a task to run on the main thread after the provided number of ticks,
+     * using a timing wheel shared by every timeout scheduled with this clock.
+     *
+     * @param ticks     the number of ticks to wait
+     * @param task      the task
+     *
+     * @return a timeout that can be cancelled
+     */
+    TimingWheel.Timeout schedule(long ticks, Runnable task)
+    {
+        return wheel.schedule(current + ticks, task);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+/**
+ * What an event stream does with an event when a subscriber's buffer is full.
+ *
+ * @see Events#stream(Class, ListenerOrder, CancellationPolicy, java.util.function.Function, int, StreamOverflow)
+ */
+public enum StreamOverflow
+{
+    /**
+     * Discards the oldest buffered event to make room for the new event.
+     */
+    DROP_OLDEST,
+    /**
+     * Discards the new event.
+     */
+    DROP_NEWEST,
+    /**
+     * Blocks the thread calling the event until the subscriber makes room, but only for
+     * asynchronous events called off the main thread. Otherwise, it discards the new event
+     * (like {@link #DROP_NEWEST}), so that slow subscribers never stall the main thread.
+     */
+    BLOCK
+}
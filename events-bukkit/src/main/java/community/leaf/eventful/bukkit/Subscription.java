@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+/**
+ * A handle to registered listeners.
+ *
+ * <p>Subscriptions know exactly which handler lists and registered listeners they own,
+ * so closing one only touches those, unlike {@code HandlerList.unregisterAll(listener)}
+ * which searches every handler list.</p>
+ *
+ * @see SubscriptionGroup
+ */
+public interface Subscription extends AutoCloseable
+{
+    /**
+     * Checks whether this subscription is still active (not yet closed).
+     *
+     * @return {@code true} if active
+     */
+    boolean isActive();
+    
+    /**
+     * Unregisters the listeners owned by this subscription. Closing an already-closed
+     * subscription does nothing.
+     */
+    @Override
+    void close();
+}
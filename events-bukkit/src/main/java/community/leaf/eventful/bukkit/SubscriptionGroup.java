@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A group of subscriptions that are closed together, such as
+ * every listener belonging to a single minigame arena.
+ *
+ * <p>Groups are reusable: closing a group closes and forgets its current
+ * subscriptions, after which new subscriptions may be added again.</p>
+ */
+public final class SubscriptionGroup implements Subscription
+{
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    
+    /**
+     * Adds a subscription to the group then returns it.
+     *
+     * @param subscription  the subscription
+     * @param <S>           subscription type
+     *
+     * @return the added subscription
+     */
+    public <S extends Subscription> S add(S subscription)
+    {
+        Objects.requireNonNull(subscription, "subscription");
+        synchronized (subscriptions) { subscriptions.add(subscription); }
+        return subscription;
+    }
+    
+    /**
+     * Gets the number of subscriptions in the group (including any that were closed individually).
+     *
+     * @return the number of subscriptions
+     */
+    public int size()
+    {
+        synchronized (subscriptions) { return subscriptions.size(); }
+    }
+    
+    /**
+     * Checks whether any subscription in the group is still active.
+     *
+     * @return {@code true} if any subscription is active
+     */
+    @Override
+    public boolean isActive()
+    {
+        synchronized (subscriptions)
+        {
+            for (Subscription subscription : subscriptions)
+            {
+                if (subscription.isActive()) { return true; }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Closes every subscription in the group, then empties the group.
+     */
+    @Override
+    public void close()
+    {
+        List<Subscription> closing;
+        
+        synchronized (subscriptions)
+        {
+            closing = new ArrayList<>(subscriptions);
+            subscriptions.clear();
+        }
+        
+        for (Subscription subscription : closing) { subscription.close(); }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.event.Event;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lets through at most a fixed number of events per key each tick.
+ *
+ * <p>Each key's window is a single {@code long} packing the tick (high 32 bits)
+ * with the number of events let through during that tick (low 32 bits), which
+ * is updated with compare-and-set, so throttling never blocks.</p>
+ *
+ * @param <E>   event type
+ */
+final class ThrottleGate<E extends Event> implements Predicate<E>
+{
+    private static final Object NULL_KEY = new Object();
+    
+    // Windows that weren't used during the current tick are swept this often
+    private static final long SWEEP_INTERVAL_TICKS = 200;
+    
+    private final Map<Object, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    
+    private final ServerTicks ticks;
+    private final Function<? super E, ?> key;
+    private final int maxPerTick;
+    
+    ThrottleGate(ServerTicks ticks, Function<? super E, ?> key, int maxPerTick)
+    {
+        if (maxPerTick <= 0) { throw new IllegalArgumentException("Invalid max per tick: " + maxPerTick); }
+        
+        this.ticks = Objects.requireNonNull(ticks, "ticks");
+        this.key = Objects.requireNonNull(key, "key");
+        this.maxPerTick = maxPerTick;
+    }
+    
+    @Override
+    public boolean test(E event)
+    {
+        long tick = ticks.current();
+        sweep(tick);
+        
+        @NullOr Object k = key.apply(event);
+        AtomicLong window = windows.computeIfAbsent((k == null) ? NULL_KEY : k, ignored -> new AtomicLong(-1L));
+        
+        int packedTick = (int) tick;
+        
+        for (;;)
+        {
+            long state = window.get();
+            int count = ((int) (state >>> 32) == packedTick) ? (int) state : 0;
+            
+            if (count >= maxPerTick) { return false; }
+            if (window.compareAndSet(state, ((long) packedTick << 32) | (count + 1))) { return true; }
+        }
+    }
+    
+    private void sweep(long tick)
+    {
+        long last = lastSweep.get();
+        if (tick - last < SWEEP_INTERVAL_TICKS || !lastSweep.compareAndSet(last, tick)) { return; }
+        
+        // A key seen concurrently with the sweep may lose its count for this tick, letting a few extra events through
+        int packedTick = (int) tick;
+        windows.values().removeIf(window -> (int) (window.get() >>> 32) != packedTick);
+    }
+}
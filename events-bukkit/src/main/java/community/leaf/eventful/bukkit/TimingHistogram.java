@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Records nanosecond durations into log-linear buckets (like an HDR histogram):
+ * every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets,
+ * so recorded values are accurate to within roughly 6%.
+ *
+ * <p>Buckets are striped by thread to avoid contention between asynchronous
+ * events. Stripes are allocated on first use, so a listener that's only ever
+ * called on the main thread only pays for one.</p>
+ */
+final class TimingHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    // Durations are clamped to 2^40 ns (about 18 minutes)
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    
+    private static final int STRIPES = stripes();
+    
+    private static int stripes()
+    {
+        int processors = Math.min(8, Runtime.getRuntime().availableProcessors());
+        return Integer.highestOneBit(Math.max(1, processors - 1)) << 1;
+    }
+    
+    static int bucket(long nanos)
+    {
+        long value = Math.min(Math.max(0, nanos), MAX_VALUE);
+        if (value < SUB_BUCKETS) { return (int) value; }
+        
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+    
+    static long highestValueIn(int bucket)
+    {
+        if (bucket < SUB_BUCKETS) { return bucket; }
+        
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+    
+    private final AtomicReferenceArray<@NullOr AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Records a duration.
+     *
+     * @param nanos     duration in nanoseconds
+     */
+    void record(long nanos)
+    {
+        int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        
+        @NullOr AtomicLongArray stripe = stripes.get(index);
+        
+        if (stripe == null)
+        {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS));
+            stripe = stripes.get(index);
+        }
+        
+        //noinspection ConstantConditions
+        stripe.incrementAndGet(bucket(nanos));
+        max.accumulate(nanos);
+    }
+    
+    /**
+     * Gets the longest recorded duration (exactly, unlike percentiles).
+     *
+     * @return the max duration in nanoseconds
+     */
+    long max()
+    {
+        return max.get();
+    }
+    
+    /**
+     * Merges all stripes into a single array of bucket counts.
+     *
+     * @return bucket counts
+     */
+    long[] counts()
+    {
+        long[] counts = new long[BUCKETS];
+        
+        for (int i = 0; i < STRIPES; i++)
+        {
+            @NullOr AtomicLongArray stripe = stripes.get(i);
+            if (stripe == null) { continue; }
+            for (int b = 0; b < BUCKETS; b++) { counts[b] += stripe.get(b); }
+        }
+        
+        return counts;
+    }
+    
+    /**
+     * Gets the value at the provided percentile from merged bucket counts.
+     *
+     * @param counts        merged bucket counts
+     * @param total         sum of the counts
+     * @param percentile    percentile between 0 and 100
+     *
+     * @return the highest value in the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    static long percentile(long[] counts, long total, double percentile)
+    {
+        if (total <= 0) { return 0; }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        
+        for (int b = 0; b < counts.length; b++)
+        {
+            seen += counts[b];
+            if (seen >= rank) { return highestValueIn(b); }
+        }
+        
+        return MAX_VALUE;
+    }
+    
+    /**
+     * Clears all recorded durations. Durations recorded concurrently may be lost.
+     */
+    void reset()
+    {
+        for (int i = 0; i < STRIPES; i++)
+        {
+            @NullOr AtomicLongArray stripe = stripes.get(i);
+            if (stripe == null) { continue; }
+            for (int b = 0; b < BUCKETS; b++) { stripe.set(b, 0); }
+        }
+        
+        max.reset();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit;
+
+import org.bukkit.plugin.Plugin;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * A hashed timing wheel advanced once per server tick, so scheduling,
+ * cancelling and expiring timeouts each cost O(1) regardless of how many
+ * are pending (unlike a scheduler task per timeout).
+ *
+ * <p>Timeouts may be scheduled and cancelled from any thread; they're handed to the main
+ * thread through queues, which owns the wheel itself and runs expired timeouts.</p>
+ */
+final class TimingWheel
+{
+    private static final int SLOTS = 512; // ~25 seconds per revolution
+    private static final int MASK = SLOTS - 1;
+    
+    private final Plugin plugin;
+    private final Slot[] slots = new Slot[SLOTS];
+    
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    
+    TimingWheel(Plugin plugin)
+    {
+        this.plugin = plugin;
+        for (int i = 0; i < SLOTS; i++) { slots[i] = new Slot(); }
+    }
+    
+    /**
+     * Schedules a task to run on the main thread once the provided tick is reached.
+     *
+     * @param deadline  the tick to run the task on
+     * @param task      the task
+     *
+     * @return a timeout that can be cancelled
+     */
+    Timeout schedule(long deadline, Runnable task)
+    {
+        Timeout timeout = new Timeout(deadline, task);
+        scheduled.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Advances the wheel to the provided tick, running every timeout that's due.
+     * Only called by the main thread, exactly once per tick.
+     *
+     * @param now   the current tick
+     */
+    void advance(long now)
+    {
+        for (@NullOr Timeout timeout; (timeout = cancelled.poll()) != null; ) { timeout.unlink(); }
+        
+        for (@NullOr Timeout timeout; (timeout = scheduled.poll()) != null; )
+        {
+            if (timeout.state.get() != Timeout.PENDING) { continue; }
+            
+            long due = Math.max(timeout.deadline, now);
+            timeout.rounds = (due - now) / SLOTS;
+            slots[(int) (due & MASK)].add(timeout);
+        }
+        
+        slots[(int) (now & MASK)].expire();
+    }
+    
+    private final class Slot
+    {
+        private @NullOr Timeout head = null;
+        
+        void add(Timeout timeout)
+        {
+            timeout.slot = this;
+            timeout.next = head;
+            if (head != null) { head.previous = timeout; }
+            head = timeout;
+        }
+        
+        void remove(Timeout timeout)
+        {
+            if (timeout.previous != null) { timeout.previous.next = timeout.next; }
+            else { head = timeout.next; }
+            
+            if (timeout.next != null) { timeout.next.previous = timeout.previous; }
+            
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+        
+        void expire()
+        {
+            for (@NullOr Timeout timeout = head; timeout != null; )
+            {
+                @NullOr Timeout next = timeout.next;
+                
+                if (timeout.rounds > 0) { timeout.rounds--; }
+                else
+                {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                
+                timeout = next;
+            }
+        }
+    }
+    
+    /**
+     * A scheduled task.
+     */
+    final class Timeout
+    {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+        
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        final long deadline;
+        final Runnable task;
+        
+        // Only accessed by the main thread
+        long rounds = 0;
+        @NullOr Slot slot = null;
+        @NullOr Timeout previous = null;
+        @NullOr Timeout next = null;
+        
+        Timeout(long deadline, Runnable task)
+        {
+            this.deadline = deadline;
+            this.task = task;
+        }
+        
+        /**
+         * Cancels the timeout unless it already expired.
+         */
+        void cancel()
+        {
+            // Removed from its slot by the main thread, so the task isn't retained until its deadline
+            if (state.compareAndSet(PENDING, CANCELLED)) { cancelled.add(this); }
+        }
+        
+        void unlink()
+        {
+            @NullOr Slot current = slot;
+            if (current != null) { current.remove(this); }
+        }
+        
+        void expire()
+        {
+            if (!state.compareAndSet(PENDING, EXPIRED)) { return; }
+            
+            try { task.run(); }
+            catch (RuntimeException e)
+            {
+                plugin.getLogger().log(Level.WARNING, "Could not run expired timeout: " + task, e);
+            }
+        }
+    }
+}
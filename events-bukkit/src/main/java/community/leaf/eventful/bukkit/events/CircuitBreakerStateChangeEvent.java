@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Objects;
+
+/**
+ * An event that gets called when a listener's circuit breaker changes state, such as when a faulting
+ * or slow listener gets suspended. Use this to alert operators about misbehaving listeners.
+ *
+ * <p>This event is called from whichever thread triggered the change, so it's asynchronous
+ * if the change happened while handling an asynchronous event.</p>
+ */
+public class CircuitBreakerStateChangeEvent extends Event
+{
+    /**
+     * Circuit breaker states.
+     */
+    public enum State
+    {
+        /**
+         * The listener is invoked normally.
+         */
+        CLOSED,
+        /**
+         * The listener is suspended: it remains registered but isn't invoked.
+         */
+        OPEN,
+        /**
+         * The cooldown elapsed, so the listener is invoked once on trial
+         * to decide whether it should be closed or opened again.
+         */
+        HALF_OPEN
+    }
+    
+    /**
+     * Why a circuit breaker changed state.
+     */
+    public enum Reason
+    {
+        /**
+         * The listener failed too often.
+         */
+        FAILURES,
+        /**
+         * The listener spent too much time handling events in a single tick.
+         */
+        SLOW,
+        /**
+         * The suspension cooldown elapsed.
+         */
+        COOLDOWN_ELAPSED,
+        /**
+         * The trial invocation succeeded.
+         */
+        TRIAL_SUCCEEDED,
+        /**
+         * The trial invocation failed or was too slow.
+         */
+        TRIAL_FAILED
+    }
+    
+    private final Plugin plugin;
+    private final Listener listener;
+    private final Class<? extends Event> eventType;
+    private final State previous;
+    private final State state;
+    private final Reason reason;
+    
+    /**
+     * Constructs.
+     *
+     * @param async         whether the event is called asynchronously
+     * @param plugin        the plugin that registered the listener
+     * @param listener      the listener
+     * @param eventType     the event type that the listener was registered for
+     * @param previous      the previous state
+     * @param state         the new state
+     * @param reason        the reason for the change
+     */
+    public CircuitBreakerStateChangeEvent(
+        boolean async,
+        Plugin plugin,
+        Listener listener,
+        Class<? extends Event> eventType,
+        State previous,
+        State state,
+        Reason reason
+    ) {
+        super(async);
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.eventType = Objects.requireNonNull(eventType, "eventType");
+        this.previous = Objects.requireNonNull(previous, "previous");
+        this.state = Objects.requireNonNull(state, "state");
+        this.reason = Objects.requireNonNull(reason, "reason");
+    }
+    
+    /**
+     * Gets the plugin that registered the listener.
+     *
+     * @return the plugin
+     */
+    public Plugin getPlugin()
+    {
+        return plugin;
+    }
+    
+    /**
+     * Gets the listener whose circuit breaker changed state.
+     *
+     * @return the listener
+     */
+    public Listener getListener()
+    {
+        return listener;
+    }
+    
+    /**
+     * Gets the event type that the listener was registered for.
+     *
+     * @return the event type
+     */
+    public Class<? extends Event> getEventType()
+    {
+        return eventType;
+    }
+    
+    /**
+     * Gets the state before the change.
+     *
+     * @return the previous state
+     */
+    public State getPreviousState()
+    {
+        return previous;
+    }
+    
+    /**
+     * Gets the state after the change.
+     *
+     * @return the new state
+     */
+    public State getState()
+    {
+        return state;
+    }
+    
+    /**
+     * Gets the reason for the change.
+     *
+     * @return the reason
+     */
+    public Reason getReason()
+    {
+        return reason;
+    }
+    
+    // - - - - - - HandlerList Boilerplate - - - - - -
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public static HandlerList getHandlerList() { return HANDLERS; }
+    
+    @Override
+    public HandlerList getHandlers() { return HANDLERS; }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.bukkit.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import java.util.Objects;
+
+/**
+ * An event that gets called to summarize uncaught exceptions from a listener that were suppressed
+ * instead of being reported individually (as an {@link UncaughtEventExceptionEvent}), which protects
+ * the server from exception storms.
+ *
+ * <p>This event is always called synchronously on the main thread. It only carries the most recent
+ * suppressed exception and its event type, not the suppressed events themselves, since those may
+ * have been modified or reused by the time it's called.</p>
+ */
+public class SuppressedEventExceptionsEvent extends Event
+{
+    private final Class<? extends Event> eventType;
+    private final Listener listener;
+    private final Throwable exception;
+    private final long suppressed;
+    
+    /**
+     * Constructs.
+     *
+     * @param eventType     the type of the most recent exceptional event
+     * @param listener      the listener that caused the exceptions
+     * @param exception     the most recent uncaught exception
+     * @param suppressed    the number of suppressed exceptions
+     */
+    public SuppressedEventExceptionsEvent(Class<? extends Event> eventType, Listener listener, Throwable exception, long suppressed)
+    {
+        this.eventType = Objects.requireNonNull(eventType, "eventType");
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.exception = Objects.requireNonNull(exception, "exception");
+        this.suppressed = suppressed;
+    }
+    
+    /**
+     * Gets the type of the most recent event that the listener failed to handle.
+     *
+     * @return the exceptional event type
+     */
+    public Class<? extends Event> getEventType()
+    {
+        return eventType;
+    }
+    
+    /**
+     * Gets the listener that caused the exceptions.
+     *
+     * @return the exception-generating listener
+     */
+    public Listener getListener()
+    {
+        return listener;
+    }
+    
+    /**
+     * Gets the most recent suppressed exception.
+     *
+     * @return the most recent uncaught exception
+     */
+    public Throwable getException()
+    {
+        return exception;
+    }
+    
+    /**
+     * Gets the number of exceptions from the listener that were suppressed since its last report.
+     *
+     * @return the number of suppressed exceptions
+     */
+    public long getSuppressedCount()
+    {
+        return suppressed;
+    }
+    
+    // - - - - - - HandlerList Boilerplate - - - - - -
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public static HandlerList getHandlerList() { return HANDLERS; }
+    
+    @Override
+    public HandlerList getHandlers() { return HANDLERS; }
+}
@@ -16,6 +16,10 @@ import java.util.Objects;
 /**
  * An event that gets called when an uncaught exception occurs while handling another event. Use this to customize
  * event exception handling.
+ *
+ * <p>To protect the server from exception storms, repeated exceptions from the same listener are suppressed
+ * instead of being reported individually by this event, then periodically summarized by a
+ * {@link SuppressedEventExceptionsEvent}.</p>
  */
 public class UncaughtEventExceptionEvent extends Event
 {
@@ -0,0 +1,359 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.processor;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates a {@code ListenerTable} for every concrete listener class that has
+ * {@code @EventHandler} or {@code @EventListener} methods, so that Eventful can
+ * register them with typed direct calls instead of reflection.
+ *
+ * <p>Methods with invalid signatures are reported as compilation errors. Classes
+ * that generated code can't reach (private or generic classes, private methods,
+ * inaccessible event types) don't get a table and are registered reflectively
+ * at runtime, just like classes compiled without this processor.</p>
+ */
+@SupportedAnnotationTypes("*")
+public final class ListenerTableProcessor extends AbstractProcessor
+{
+    static final String LISTENER = "org.bukkit.event.Listener";
+    static final String EVENT = "org.bukkit.event.Event";
+    static final String EVENT_HANDLER = "org.bukkit.event.EventHandler";
+    static final String EVENT_PRIORITY = "org.bukkit.event.EventPriority";
+    static final String EVENT_LISTENER = "community.leaf.eventful.bukkit.annotations.EventListener";
+    static final String CANCELLED_EVENTS = "community.leaf.eventful.bukkit.annotations.CancelledEvents";
+    static final String LISTENER_ORDER = "community.leaf.eventful.bukkit.ListenerOrder";
+    static final String CANCELLATION_POLICY = "community.leaf.eventful.bukkit.CancellationPolicy";
+    static final String LISTENER_TABLE = "community.leaf.eventful.bukkit.ListenerTable";
+    
+    /**
+     * Mirrors {@code ListenerTable.SUFFIX} (this processor doesn't depend on Eventful itself).
+     */
+    static final String SUFFIX = "$$EventfulTable";
+    
+    private final Set<String> generated = new HashSet<>();
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round)
+    {
+        @NullOr TypeElement listener = processingEnv.getElementUtils().getTypeElement(LISTENER);
+        @NullOr TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT);
+        
+        if (listener == null || event == null) { return false; } // Bukkit isn't on the classpath
+        
+        List<TypeElement> types = new ArrayList<>();
+        collectTypes(ElementFilter.typesIn(round.getRootElements()), types);
+        
+        for (TypeElement type : types)
+        {
+            if (!isConcreteListener(type, listener)) { continue; }
+            
+            String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (!generated.add(name)) { continue; }
+            
+            Optional<List<TableMethod>> methods = resolveMethods(type, event);
+            if (methods.isEmpty() || methods.get().isEmpty()) { continue; }
+            
+            writeTable(type, methods.get());
+        }
+        
+        return false; // Never claim annotations
+    }
+    
+    private static void collectTypes(Iterable<TypeElement> roots, List<TypeElement> types)
+    {
+        for (TypeElement type : roots)
+        {
+            types.add(type);
+            collectTypes(ElementFilter.typesIn(type.getEnclosedElements()), types);
+        }
+    }
+    
+    private boolean isConcreteListener(TypeElement type, TypeElement listener)
+    {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.ENUM) { return false; }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) { return false; }
+        
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+        return processingEnv.getTypeUtils().isAssignable(erasure, listener.asType());
+    }
+    
+    /**
+     * Resolves the same methods that Eventful would find by reflection: every method declared by
+     * the type, plus public methods it inherits.
+     *
+     * @return the type's listener methods, or empty if a table can't (or shouldn't) be generated
+     */
+    private Optional<List<TableMethod>> resolveMethods(TypeElement type, TypeElement event)
+    {
+        List<TableMethod> methods = new ArrayList<>();
+        boolean accessible = isAccessibleType(type);
+        boolean valid = true;
+        boolean annotated = false;
+        
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)))
+        {
+            boolean declared = method.getEnclosingElement().equals(type);
+            if (!declared && !method.getModifiers().contains(Modifier.PUBLIC)) { continue; }
+            
+            @NullOr String[] meta = resolveMeta(type, method);
+            if (meta == null) { continue; }
+            
+            annotated = true;
+            
+            if (method.getParameters().size() != 1 || !isEvent(method.getParameters().get(0).asType(), event))
+            {
+                // Only report methods declared here, inherited ones are reported on their own type
+                if (declared)
+                {
+                    processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Invalid event listener method signature (must accept exactly one Event parameter)",
+                        method
+                    );
+                }
+                valid = false;
+                continue;
+            }
+            
+            VariableElement param = method.getParameters().get(0);
+            
+            // Type variables are erased to their bound, which generated code can't name as the event
+            if (param.asType().getKind() != TypeKind.DECLARED || !isAccessibleMethod(type, method) || !isAccessibleEvent(type, param.asType()))
+            {
+                accessible = false;
+                continue;
+            }
+            
+            methods.add(new TableMethod(method, (DeclaredType) param.asType(), meta[0], meta[1]));
+        }
+        
+        if (valid && !accessible && annotated)
+        {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.NOTE,
+                "Listener isn't accessible to generated code, it will be registered reflectively",
+                type
+            );
+        }
+        
+        return (valid && accessible) ? Optional.of(methods) : Optional.empty();
+    }
+    
+    private boolean isEvent(TypeMirror type, TypeElement event)
+    {
+        // Reflection sees the erased parameter type, so type variables are checked by their bound
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), event.asType());
+    }
+    
+    /**
+     * Resolves a method's priority and {@code ignoreCancelled} expressions.
+     *
+     * @return {@code [priority, ignoreCancelled]} source expressions, or {@code null} if not annotated
+     */
+    private @NullOr String[] resolveMeta(TypeElement type, ExecutableElement method)
+    {
+        @NullOr AnnotationMirror handler = annotation(method, EVENT_HANDLER);
+        
+        if (handler != null)
+        {
+            return new String[] {
+                EVENT_PRIORITY + "." + value(handler, "priority"),
+                value(handler, "ignoreCancelled")
+            };
+        }
+        
+        @NullOr AnnotationMirror listener = annotation(method, EVENT_LISTENER);
+        if (listener == null) { return null; }
+        
+        // Most specific to least: method, class, package
+        @NullOr AnnotationMirror cancelled = annotation(method, CANCELLED_EVENTS);
+        if (cancelled == null) { cancelled = annotation(type, CANCELLED_EVENTS); }
+        if (cancelled == null) { cancelled = annotation(processingEnv.getElementUtils().getPackageOf(type), CANCELLED_EVENTS); }
+        
+        String policy = (cancelled == null) ? "ACCEPT" : value(cancelled, "value");
+        
+        return new String[] {
+            LISTENER_ORDER + "." + value(listener, "value") + ".priority()",
+            CANCELLATION_POLICY + "." + policy + ".ignoresCancelledEvents()"
+        };
+    }
+    
+    private static @NullOr AnnotationMirror annotation(Element element, String name)
+    {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+        {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(name)) { return mirror; }
+        }
+        return null;
+    }
+    
+    private String value(AnnotationMirror mirror, String name)
+    {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+            processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet())
+        {
+            if (!entry.getKey().getSimpleName().contentEquals(name)) { continue; }
+            
+            Object value = entry.getValue().getValue();
+            return (value instanceof VariableElement) // enum constant
+                ? ((VariableElement) value).getSimpleName().toString()
+                : String.valueOf(value);
+        }
+        throw new IllegalStateException("Missing annotation value: " + name);
+    }
+    
+    private static boolean isAccessibleType(TypeElement type)
+    {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement())
+        {
+            TypeElement enclosing = (TypeElement) element;
+            
+            if (enclosing.getNestingKind() != NestingKind.TOP_LEVEL && enclosing.getNestingKind() != NestingKind.MEMBER) { return false; }
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) { return false; }
+            if (!enclosing.getTypeParameters().isEmpty()) { return false; }
+        }
+        return true;
+    }
+    
+    private boolean isAccessibleMethod(TypeElement type, ExecutableElement method)
+    {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) { return false; }
+        if (modifiers.contains(Modifier.PUBLIC)) { return true; }
+        return packageOf(method).equals(packageOf(type));
+    }
+    
+    private boolean isAccessibleEvent(TypeElement type, TypeMirror param)
+    {
+        DeclaredType declared = (DeclaredType) param;
+        if (!declared.getTypeArguments().isEmpty()) { return false; }
+        
+        for (Element element = declared.asElement(); element instanceof TypeElement; element = element.getEnclosingElement())
+        {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) { return false; }
+            if (!modifiers.contains(Modifier.PUBLIC) && !packageOf(element).equals(packageOf(type))) { return false; }
+        }
+        return true;
+    }
+    
+    private PackageElement packageOf(Element element)
+    {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+    
+    private void writeTable(TypeElement type, List<TableMethod> methods)
+    {
+        PackageElement pkg = packageOf(type);
+        String binary = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simple = (pkg.isUnnamed() ? binary : binary.substring(pkg.getQualifiedName().length() + 1)) + SUFFIX;
+        String qualified = pkg.isUnnamed() ? simple : pkg.getQualifiedName() + "." + simple;
+        String listener = type.getQualifiedName().toString();
+        
+        StringBuilder source = new StringBuilder();
+        
+        if (!pkg.isUnnamed()) { source.append("package ").append(pkg.getQualifiedName()).append(";\n\n"); }
+        
+        source.append("@").append(Generated.class.getName()).append("(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(simple)
+            .append(" implements ").append(LISTENER_TABLE).append("<").append(listener).append(">\n");
+        source.append("{\n");
+        source.append("    @Override\n");
+        source.append("    public void describe(").append(LISTENER_TABLE).append(".Methods<").append(listener).append("> methods)\n");
+        source.append("    {\n");
+        
+        for (TableMethod method : methods)
+        {
+            String event = ((TypeElement) method.event.asElement()).getQualifiedName().toString();
+            String name = method.element.getSimpleName().toString();
+            String receiver = method.element.getModifiers().contains(Modifier.STATIC) ? listener : "listener";
+            
+            source.append("        methods.method(\n");
+            source.append("            \"").append(method.signature()).append("\",\n");
+            source.append("            ").append(event).append(".class,\n");
+            source.append("            ").append(method.priority).append(",\n");
+            source.append("            ").append(method.ignoreCancelled).append(",\n");
+            source.append("            (listener, event) -> ").append(receiver).append(".").append(name).append("(event)\n");
+            source.append("        );\n");
+        }
+        
+        source.append("    }\n");
+        source.append("}\n");
+        
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualified, type).openWriter())
+        {
+            writer.write(source.toString());
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR, "Unable to write listener table " + qualified + ": " + e.getMessage(), type
+            );
+        }
+    }
+    
+    private static final class TableMethod
+    {
+        final ExecutableElement element;
+        final DeclaredType event;
+        final String priority;
+        final String ignoreCancelled;
+        
+        TableMethod(ExecutableElement element, DeclaredType event, String priority, String ignoreCancelled)
+        {
+            this.element = element;
+            this.event = event;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+        }
+        
+        String signature()
+        {
+            TypeElement declaring = (TypeElement) element.getEnclosingElement();
+            return declaring.getQualifiedName() + "." + element.getSimpleName() + "(" + event + ")";
+        }
+    }
+}
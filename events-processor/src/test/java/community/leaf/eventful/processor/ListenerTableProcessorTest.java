@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ListenerTableProcessorTest
+{
+    private static final JavaFileObject EVENT = JavaFileObjects.forSourceLines(
+        "test.JoinEvent",
+        "package test;",
+        "",
+        "import org.bukkit.event.Event;",
+        "import org.bukkit.event.HandlerList;",
+        "",
+        "public class JoinEvent extends Event",
+        "{",
+        "    private static final HandlerList HANDLERS = new HandlerList();",
+        "    public static HandlerList getHandlerList() { return HANDLERS; }",
+        "    @Override public HandlerList getHandlers() { return HANDLERS; }",
+        "}"
+    );
+    
+    private static Compilation compile(JavaFileObject... sources)
+    {
+        List<JavaFileObject> files = new ArrayList<>(List.of(sources));
+        files.add(EVENT);
+        return Compiler.javac().withProcessors(new ListenerTableProcessor()).compile(files);
+    }
+    
+    private static Optional<JavaFileObject> table(Compilation compilation, String listener)
+    {
+        return compilation.generatedSourceFile(listener + ListenerTableProcessor.SUFFIX);
+    }
+    
+    private static String source(Compilation compilation, String listener) throws IOException
+    {
+        Optional<JavaFileObject> table = table(compilation, listener);
+        assertTrue(table.isPresent(), "No table generated for " + listener);
+        return table.get().getCharContent(false).toString();
+    }
+    
+    private static boolean reported(List<Diagnostic<? extends JavaFileObject>> diagnostics, String message)
+    {
+        return diagnostics.stream().anyMatch(diagnostic -> diagnostic.getMessage(Locale.ROOT).contains(message));
+    }
+    
+    @Test
+    public void callsInstanceAndStaticMethodsDirectly() throws IOException
+    {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+            "test.Listening",
+            "package test;",
+            "",
+            "import community.leaf.eventful.bukkit.CancellationPolicy;",
+            "import community.leaf.eventful.bukkit.ListenerOrder;",
+            "import community.leaf.eventful.bukkit.annotations.CancelledEvents;",
+            "import community.leaf.eventful.bukkit.annotations.EventListener;",
+            "import org.bukkit.event.EventHandler;",
+            "import org.bukkit.event.EventPriority;",
+            "import org.bukkit.event.Listener;",
+            "",
+            "@CancelledEvents(CancellationPolicy.REJECT)",
+            "public class Listening implements Listener",
+            "{",
+            "    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)",
+            "    public void onJoin(JoinEvent event) {}",
+            "",
+            "    @EventListener(ListenerOrder.FIRST)",
+            "    static void onFirstJoin(JoinEvent event) {}",
+            "}"
+        ));
+        
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        
+        String source = source(compilation, "test.Listening");
+        
+        assertTrue(source.contains("\"test.Listening.onJoin(test.JoinEvent)\""), source);
+        assertTrue(source.contains("org.bukkit.event.EventPriority.HIGH,\n            true,"), source);
+        assertTrue(source.contains("(listener, event) -> listener.onJoin(event)"), source);
+        
+        assertTrue(source.contains("\"test.Listening.onFirstJoin(test.JoinEvent)\""), source);
+        assertTrue(source.contains("community.leaf.eventful.bukkit.ListenerOrder.FIRST.priority()"), source);
+        assertTrue(source.contains("community.leaf.eventful.bukkit.CancellationPolicy.REJECT.ignoresCancelledEvents()"), source);
+        assertTrue(source.contains("(listener, event) -> test.Listening.onFirstJoin(event)"), source);
+    }
+    
+    @Test
+    public void includesPublicInheritedMethods() throws IOException
+    {
+        Compilation compilation = compile(
+            JavaFileObjects.forSourceLines(
+                "test.Base",
+                "package test;",
+                "",
+                "import org.bukkit.event.EventHandler;",
+                "import org.bukkit.event.Listener;",
+                "",
+                "public abstract class Base implements Listener",
+                "{",
+                "    @EventHandler public void onJoin(JoinEvent event) {}",
+                "    @EventHandler protected void onProtectedJoin(JoinEvent event) {}",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines(
+                "test.child.Child",
+                "package test.child;",
+                "",
+                "import org.bukkit.event.EventHandler;",
+                "import test.JoinEvent;",
+                "",
+                "public class Child extends test.Base",
+                "{",
+                "    @EventHandler public void onChildJoin(JoinEvent event) {}",
+                "}"
+            )
+        );
+        
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        assertFalse(table(compilation, "test.Base").isPresent(), "Abstract listeners don't get a table");
+        
+        String source = source(compilation, "test.child.Child");
+        
+        assertTrue(source.contains("\"test.Base.onJoin(test.JoinEvent)\""), source);
+        assertTrue(source.contains("\"test.child.Child.onChildJoin(test.JoinEvent)\""), source);
+        assertFalse(source.contains("onProtectedJoin"), source);
+    }
+    
+    @Test
+    public void leavesInaccessibleListenersToReflection()
+    {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+            "test.Outer",
+            "package test;",
+            "",
+            "import org.bukkit.event.EventHandler;",
+            "import org.bukkit.event.Listener;",
+            "",
+            "public class Outer",
+            "{",
+            "    private static class Hidden implements Listener",
+            "    {",
+            "        @EventHandler public void onJoin(JoinEvent event) {}",
+            "    }",
+            "",
+            "    public static class PrivateMethod implements Listener",
+            "    {",
+            "        @EventHandler private void onJoin(JoinEvent event) {}",
+            "    }",
+            "}"
+        ));
+        
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        assertFalse(table(compilation, "test.Outer$Hidden").isPresent());
+        assertFalse(table(compilation, "test.Outer$PrivateMethod").isPresent());
+        assertTrue(reported(compilation.notes(), "registered reflectively"));
+    }
+    
+    @Test
+    public void leavesTypeVariableEventsToReflection()
+    {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+            "test.Generic",
+            "package test;",
+            "",
+            "import org.bukkit.event.EventHandler;",
+            "import org.bukkit.event.Listener;",
+            "",
+            "public class Generic<T extends JoinEvent> implements Listener",
+            "{",
+            "    @EventHandler public void onJoin(T event) {}",
+            "",
+            "    public static class GenericMethod implements Listener",
+            "    {",
+            "        @EventHandler public <E extends JoinEvent> void onJoin(E event) {}",
+            "    }",
+            "}"
+        ));
+        
+        assertEquals(Compilation.Status.SUCCESS, compilation.status(), () -> compilation.diagnostics().toString());
+        assertFalse(table(compilation, "test.Generic").isPresent());
+        assertFalse(table(compilation, "test.Generic$GenericMethod").isPresent());
+        assertTrue(reported(compilation.notes(), "registered reflectively"));
+    }
+    
+    @Test
+    public void reportsInvalidSignatures()
+    {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+            "test.Invalid",
+            "package test;",
+            "",
+            "import org.bukkit.event.EventHandler;",
+            "import org.bukkit.event.Listener;",
+            "",
+            "public class Invalid implements Listener",
+            "{",
+            "    @EventHandler public void onJoin(JoinEvent event, JoinEvent again) {}",
+            "",
+            "    public static class Subclass extends Invalid {}",
+            "}"
+        ));
+        
+        assertEquals(Compilation.Status.FAILURE, compilation.status());
+        assertTrue(reported(compilation.errors(), "Invalid event listener method signature"));
+        assertEquals(1, compilation.errors().size(), "Inherited methods are only reported on their declaring type");
+    }
+}
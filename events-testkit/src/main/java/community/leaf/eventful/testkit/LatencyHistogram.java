@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+/**
+ * Records nanosecond durations into log-linear buckets (the same layout as
+ * the listener metrics' histogram), so recorded values are accurate to within
+ * roughly 6%. Histograms are confined to a single thread and merged afterwards.
+ */
+final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    // Durations are clamped to 2^40 ns (about 18 minutes)
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    
+    private static int bucket(long nanos)
+    {
+        long value = Math.min(Math.max(0, nanos), MAX_VALUE);
+        if (value < SUB_BUCKETS) { return (int) value; }
+        
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+    
+    private static long highestValueIn(int bucket)
+    {
+        if (bucket < SUB_BUCKETS) { return bucket; }
+        
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+    
+    private final long[] counts = new long[BUCKETS];
+    
+    private long total = 0;
+    private long sum = 0;
+    private long max = 0;
+    
+    void record(long nanos)
+    {
+        counts[bucket(nanos)]++;
+        total++;
+        sum += nanos;
+        max = Math.max(max, nanos);
+    }
+    
+    void merge(LatencyHistogram other)
+    {
+        for (int b = 0; b < BUCKETS; b++) { counts[b] += other.counts[b]; }
+        
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+    
+    long total()
+    {
+        return total;
+    }
+    
+    long sum()
+    {
+        return sum;
+    }
+    
+    long max()
+    {
+        return max;
+    }
+    
+    /**
+     * Gets the value at the provided percentile (between 0 and 100),
+     * or 0 if nothing was recorded.
+     */
+    long percentile(double percentile)
+    {
+        if (total <= 0) { return 0; }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        
+        for (int b = 0; b < BUCKETS; b++)
+        {
+            seen += counts[b];
+            if (seen >= rank) { return Math.min(highestValueIn(b), max); }
+        }
+        
+        return max;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of a {@link LoadScenario} run, excluding its warmup ticks.
+ */
+public final class LoadReport
+{
+    private final int players;
+    private final int ticks;
+    private final Duration elapsed;
+    private final LoadStats total;
+    private final List<LoadStats> events;
+    
+    LoadReport(int players, int ticks, Duration elapsed, LoadStats total, List<LoadStats> events)
+    {
+        this.players = players;
+        this.ticks = ticks;
+        this.elapsed = elapsed;
+        this.total = total;
+        this.events = List.copyOf(events);
+    }
+    
+    /**
+     * Gets the number of simulated players.
+     *
+     * @return the number of players
+     */
+    public int players()
+    {
+        return players;
+    }
+    
+    /**
+     * Gets the number of measured ticks.
+     *
+     * @return the number of ticks
+     */
+    public int ticks()
+    {
+        return ticks;
+    }
+    
+    /**
+     * Gets the wall-clock time taken by the measured ticks, including creating events and running scheduled tasks.
+     *
+     * @return the elapsed time
+     */
+    public Duration elapsed()
+    {
+        return elapsed;
+    }
+    
+    /**
+     * Gets the statistics of every event called.
+     *
+     * @return the combined statistics
+     */
+    public LoadStats total()
+    {
+        return total;
+    }
+    
+    /**
+     * Gets the statistics of each event in the scenario's mix, in order.
+     *
+     * @return per-event statistics
+     */
+    public List<LoadStats> events()
+    {
+        return events;
+    }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder()
+            .append("LoadReport{players=").append(players)
+            .append(", ticks=").append(ticks)
+            .append(", elapsed=").append(elapsed)
+            .append(", total=").append(total);
+        
+        for (LoadStats stats : events) { builder.append(", ").append(stats); }
+        return builder.append("}").toString();
+    }
+}
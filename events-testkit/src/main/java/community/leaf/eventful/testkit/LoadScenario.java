@@ -0,0 +1,369 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import com.sun.management.ThreadMXBean;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.PluginManager;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A simulated load of events called by players, for load-testing listeners on a {@link TestServer}.
+ *
+ * <p>Each tick, the scenario ticks the server (running scheduled tasks), then every player
+ * calls each event in the mix according to its rate. For example, a rate of {@code 0.5}
+ * calls an event for each player every other tick on average, whereas a rate of {@code 3}
+ * calls it three times per tick. Events are created before they're called, so only calling
+ * them is measured.</p>
+ *
+ * <p>Synchronous events are called on the thread running the scenario (which becomes the
+ * server's primary thread), while asynchronous events are called on another thread at the
+ * same time, like asynchronous chat.</p>
+ *
+ * <p>Scenarios are immutable: each {@code with} method returns a new scenario.</p>
+ */
+public final class LoadScenario
+{
+    /**
+     * Creates a scenario with the provided number of players and no events, running for
+     * 1200 ticks (one minute at 20 ticks per second) after 200 ticks of warmup.
+     *
+     * @param players   number of simulated players
+     *
+     * @return a new scenario
+     *
+     * @throws IllegalArgumentException if {@code players} isn't positive
+     */
+    public static LoadScenario of(int players)
+    {
+        if (players <= 0) { throw new IllegalArgumentException("Invalid players: " + players); }
+        return new LoadScenario(players, List.of(), 1200, 200, 0);
+    }
+    
+    private final int players;
+    private final List<Mix> mix;
+    private final int ticks;
+    private final int warmupTicks;
+    private final long seed;
+    
+    private LoadScenario(int players, List<Mix> mix, int ticks, int warmupTicks, long seed)
+    {
+        this.players = players;
+        this.mix = mix;
+        this.ticks = ticks;
+        this.warmupTicks = warmupTicks;
+        this.seed = seed;
+    }
+    
+    /**
+     * Adds an event to the mix.
+     *
+     * @param name      the name that the event's statistics are reported by
+     * @param rate      average number of events each player calls per tick
+     * @param event     creates a new event for a player
+     *
+     * @return a new scenario
+     *
+     * @throws IllegalArgumentException if {@code rate} isn't positive
+     */
+    public LoadScenario withEvent(String name, double rate, Function<? super Player, ? extends Event> event)
+    {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(event, "event");
+        if (!(rate > 0) || Double.isInfinite(rate)) { throw new IllegalArgumentException("Invalid rate: " + rate); }
+        
+        List<Mix> updated = new ArrayList<>(mix);
+        updated.add(new Mix(name, rate, event));
+        return new LoadScenario(players, List.copyOf(updated), ticks, warmupTicks, seed);
+    }
+    
+    /**
+     * Sets the number of measured ticks.
+     *
+     * @param ticks     number of ticks
+     *
+     * @return a new scenario
+     */
+    public LoadScenario withTicks(int ticks)
+    {
+        if (ticks <= 0) { throw new IllegalArgumentException("Invalid ticks: " + ticks); }
+        return new LoadScenario(players, mix, ticks, warmupTicks, seed);
+    }
+    
+    /**
+     * Sets the number of ticks simulated before measuring, which lets the JIT compiler warm up.
+     *
+     * @param warmupTicks   number of warmup ticks
+     *
+     * @return a new scenario
+     */
+    public LoadScenario withWarmupTicks(int warmupTicks)
+    {
+        if (warmupTicks < 0) { throw new IllegalArgumentException("Invalid warmup ticks: " + warmupTicks); }
+        return new LoadScenario(players, mix, ticks, warmupTicks, seed);
+    }
+    
+    /**
+     * Sets the seed deciding when fractional rates call events, so that runs are repeatable.
+     *
+     * @param seed  the seed
+     *
+     * @return a new scenario
+     */
+    public LoadScenario withSeed(long seed)
+    {
+        return new LoadScenario(players, mix, ticks, warmupTicks, seed);
+    }
+    
+    /**
+     * Runs the scenario on the current thread, which becomes the server's primary thread.
+     * The scenario's players are added to the server when it starts, so listeners should
+     * be registered beforehand.
+     *
+     * @param server    the test server
+     *
+     * @return a summary of the measured ticks
+     *
+     * @throws IllegalStateException if the mix is empty
+     */
+    public LoadReport run(TestServer server)
+    {
+        Objects.requireNonNull(server, "server");
+        if (mix.isEmpty()) { throw new IllegalStateException("Scenario doesn't have any events"); }
+        
+        server.claimPrimaryThread();
+        
+        List<Player> simulated = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) { simulated.add(server.player("Player" + i)); }
+        
+        SplittableRandom random = new SplittableRandom(seed);
+        PluginManager plugins = server.pluginManager();
+        
+        Recorder sync = new Recorder();
+        Recorder async = new Recorder();
+        
+        ExecutorService asyncThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Eventful Load Scenario Async");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        List<Event> syncEvents = new ArrayList<>();
+        List<Event> asyncEvents = new ArrayList<>();
+        List<Integer> syncMix = new ArrayList<>();
+        List<Integer> asyncMix = new ArrayList<>();
+        
+        long started = 0;
+        
+        try
+        {
+            for (int tick = 0; tick < warmupTicks + ticks; tick++)
+            {
+                boolean measuring = tick >= warmupTicks;
+                if (tick == warmupTicks) { started = System.nanoTime(); }
+                
+                server.tick();
+                
+                syncEvents.clear();
+                asyncEvents.clear();
+                syncMix.clear();
+                asyncMix.clear();
+                
+                for (Player player : simulated)
+                {
+                    for (int m = 0; m < mix.size(); m++)
+                    {
+                        Mix entry = mix.get(m);
+                        int count = entry.count(random);
+                        
+                        for (int i = 0; i < count; i++)
+                        {
+                            Event event = Objects.requireNonNull(entry.event.apply(player), "event");
+                            (event.isAsynchronous() ? asyncEvents : syncEvents).add(event);
+                            (event.isAsynchronous() ? asyncMix : syncMix).add(m);
+                        }
+                    }
+                }
+                
+                @NullOr Future<?> asyncTick = asyncEvents.isEmpty() ? null
+                    : asyncThread.submit(() -> async.call(plugins, asyncEvents, asyncMix, measuring));
+                
+                sync.call(plugins, syncEvents, syncMix, measuring);
+                
+                if (asyncTick != null) { await(asyncTick); }
+            }
+        }
+        finally { asyncThread.shutdownNow(); }
+        
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        
+        LatencyHistogram totalLatencies = new LatencyHistogram();
+        long totalAllocated = 0;
+        List<LoadStats> stats = new ArrayList<>(mix.size());
+        
+        for (int m = 0; m < mix.size(); m++)
+        {
+            LatencyHistogram latencies = new LatencyHistogram();
+            latencies.merge(sync.latencies(m));
+            latencies.merge(async.latencies(m));
+            totalLatencies.merge(latencies);
+            
+            long allocated = combine(sync.allocated(m), async.allocated(m));
+            totalAllocated = combine(totalAllocated, allocated);
+            
+            stats.add(new LoadStats(mix.get(m).name, latencies, allocated));
+        }
+        
+        return new LoadReport(players, ticks, elapsed, new LoadStats("total", totalLatencies, totalAllocated), stats);
+    }
+    
+    private static void await(Future<?> future)
+    {
+        try { future.get(); }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for asynchronous events", e);
+        }
+        catch (ExecutionException e)
+        {
+            @NullOr Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    private static final class Mix
+    {
+        final String name;
+        final double rate;
+        final Function<? super Player, ? extends Event> event;
+        
+        Mix(String name, double rate, Function<? super Player, ? extends Event> event)
+        {
+            this.name = name;
+            this.rate = rate;
+            this.event = event;
+        }
+        
+        int count(SplittableRandom random)
+        {
+            int whole = (int) rate;
+            return (random.nextDouble() < rate - whole) ? whole + 1 : whole;
+        }
+    }
+    
+    private static long combine(long allocated, long more)
+    {
+        return (allocated < 0 || more < 0) ? -1 : allocated + more;
+    }
+    
+    /**
+     * Records latencies and allocations for events called on a single thread.
+     */
+    private final class Recorder
+    {
+        private final LatencyHistogram[] latencies = new LatencyHistogram[mix.size()];
+        private final long[] allocated = new long[mix.size()];
+        
+        private @NullOr ThreadMXBean allocations = null;
+        private long overhead = 0;
+        
+        Recorder()
+        {
+            for (int m = 0; m < latencies.length; m++) { latencies[m] = new LatencyHistogram(); }
+        }
+        
+        void call(PluginManager plugins, List<Event> events, List<Integer> mixes, boolean measuring)
+        {
+            long thread = Thread.currentThread().getId();
+            if (measuring && allocations == null) { calibrate(thread); }
+            
+            for (int i = 0; i < events.size(); i++)
+            {
+                Event event = events.get(i);
+                
+                if (!measuring)
+                {
+                    plugins.callEvent(event);
+                    continue;
+                }
+                
+                int m = mixes.get(i);
+                long allocatedBefore = (allocations == null) ? 0 : allocations.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                
+                plugins.callEvent(event);
+                
+                long nanos = System.nanoTime() - start;
+                long allocatedAfter = (allocations == null) ? 0 : allocations.getThreadAllocatedBytes(thread);
+                
+                latencies[m].record(nanos);
+                allocated[m] += Math.max(0, allocatedAfter - allocatedBefore - overhead);
+            }
+        }
+        
+        /**
+         * Measures how much reading the allocation counter allocates by itself
+         * (which it does on some JVMs), so that it isn't attributed to events.
+         */
+        private void calibrate(long thread)
+        {
+            allocations = allocationTracking();
+            if (allocations == null) { return; }
+            
+            long minimum = Long.MAX_VALUE;
+            
+            for (int i = 0; i < 100; i++)
+            {
+                long before = allocations.getThreadAllocatedBytes(thread);
+                long after = allocations.getThreadAllocatedBytes(thread);
+                minimum = Math.min(minimum, after - before);
+            }
+            
+            overhead = minimum;
+        }
+        
+        LatencyHistogram latencies(int m)
+        {
+            return latencies[m];
+        }
+        
+        long allocated(int m)
+        {
+            return (allocations == null) ? -1 : allocated[m];
+        }
+    }
+    
+    private static @NullOr ThreadMXBean allocationTracking()
+    {
+        // HotSpot and OpenJ9 extend the standard thread bean with per-thread allocation counters
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof ThreadMXBean)) { return null; }
+        
+        ThreadMXBean allocations = (ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) { return null; }
+        
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        return allocations;
+    }
+}
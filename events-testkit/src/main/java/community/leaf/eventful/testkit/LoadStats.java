@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+/**
+ * Dispatch statistics for the events called by a {@link LoadScenario}.
+ *
+ * <p>Durations are in nanoseconds and only cover calling events (not creating them).
+ * Percentiles are accurate to within roughly 6%, whereas the max duration is exact.</p>
+ *
+ * @see LoadReport
+ */
+public final class LoadStats
+{
+    private final String name;
+    private final long events;
+    private final long dispatchNanos;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final long allocatedBytes;
+    
+    LoadStats(String name, LatencyHistogram latencies, long allocatedBytes)
+    {
+        this.name = name;
+        this.events = latencies.total();
+        this.dispatchNanos = latencies.sum();
+        this.p50 = latencies.percentile(50);
+        this.p99 = latencies.percentile(99);
+        this.p999 = latencies.percentile(99.9);
+        this.max = latencies.max();
+        this.allocatedBytes = allocatedBytes;
+    }
+    
+    /**
+     * Gets the name of the event in the scenario's mix (or {@code "total"}).
+     *
+     * @return the name
+     */
+    public String name()
+    {
+        return name;
+    }
+    
+    /**
+     * Gets the number of events called.
+     *
+     * @return the number of events
+     */
+    public long events()
+    {
+        return events;
+    }
+    
+    /**
+     * Gets the number of events called per second spent calling them,
+     * which is the dispatch capacity of the registered listeners.
+     *
+     * @return events per second
+     */
+    public double throughput()
+    {
+        return (dispatchNanos <= 0) ? 0 : events * 1_000_000_000.0 / dispatchNanos;
+    }
+    
+    /**
+     * Gets the median duration of calling an event.
+     *
+     * @return the 50th percentile duration in nanoseconds
+     */
+    public long p50()
+    {
+        return p50;
+    }
+    
+    /**
+     * Gets the 99th percentile duration of calling an event.
+     *
+     * @return the 99th percentile duration in nanoseconds
+     */
+    public long p99()
+    {
+        return p99;
+    }
+    
+    /**
+     * Gets the 99.9th percentile duration of calling an event.
+     *
+     * @return the 99.9th percentile duration in nanoseconds
+     */
+    public long p999()
+    {
+        return p999;
+    }
+    
+    /**
+     * Gets the longest duration of calling an event.
+     *
+     * @return the max duration in nanoseconds
+     */
+    public long max()
+    {
+        return max;
+    }
+    
+    /**
+     * Gets the average number of bytes allocated while calling an event
+     * (by the plugin manager and listeners, on the calling thread).
+     *
+     * @return bytes allocated per event, or {@code -1} if the JVM doesn't support measuring allocations
+     */
+    public double allocatedBytesPerEvent()
+    {
+        if (allocatedBytes < 0) { return -1; }
+        return (events <= 0) ? 0 : (double) allocatedBytes / events;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "LoadStats{" +
+            "name=" + name +
+            ", events=" + events +
+            ", throughput=" + String.format("%.0f", throughput()) +
+            ", p50=" + p50 +
+            ", p99=" + p99 +
+            ", p999=" + p999 +
+            ", max=" + max +
+            ", allocatedBytesPerEvent=" + String.format("%.1f", allocatedBytesPerEvent()) +
+            "}";
+    }
+}
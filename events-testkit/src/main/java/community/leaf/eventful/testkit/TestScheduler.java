@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * A scheduler that only runs tasks when the server is ticked.
+ *
+ * <p>Delays and periods follow Bukkit's scheduler: tasks run on the first tick after they
+ * come due (so a delay of zero runs next tick), a period of zero repeats every tick, and a
+ * negative period doesn't repeat. Synchronous tasks run on the thread ticking the server,
+ * whereas asynchronous tasks are handed to a pool of daemon threads once they come due.</p>
+ *
+ * <p>Scheduler methods are dispatched by name (like the rest of the server), so the
+ * deprecated {@code BukkitRunnable} overloads are supported as plain runnables.</p>
+ */
+final class TestScheduler
+{
+    private static final AtomicInteger ASYNC_THREADS = new AtomicInteger();
+    
+    private final ExecutorService async = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Eventful Test Server Async #" + ASYNC_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    
+    // Guarded by this
+    private final PriorityQueue<Task> queue =
+        new PriorityQueue<>(Comparator.<Task>comparingLong(task -> task.due).thenComparingInt(task -> task.id));
+    
+    private volatile long currentTick = 0;
+    
+    long currentTick()
+    {
+        return currentTick;
+    }
+    
+    /**
+     * Advances the tick, then runs every synchronous task that came due on the current
+     * thread and hands every asynchronous task that came due to the async pool.
+     */
+    void tick()
+    {
+        long tick = ++currentTick;
+        
+        while (true)
+        {
+            Task task;
+            
+            synchronized (this)
+            {
+                @NullOr Task next = queue.peek();
+                if (next == null || next.due > tick) { return; }
+                task = queue.poll();
+            }
+            
+            if (task.cancelled) { continue; }
+            
+            if (task.period > 0)
+            {
+                task.due = tick + task.period;
+                synchronized (this) { queue.add(task); }
+            }
+            
+            if (task.async) { async.execute(task::run); }
+            else { task.run(); }
+        }
+    }
+    
+    /**
+     * Cancels every pending task.
+     */
+    void reset()
+    {
+        tasks.values().forEach(Task::cancel);
+        synchronized (this) { queue.clear(); }
+        currentTick = 0;
+    }
+    
+    void cancelTasks(Plugin plugin)
+    {
+        for (Task task : tasks.values())
+        {
+            if (task.plugin == plugin) { task.cancel(); }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @NullOr Object handle(Object proxy, Method method, @NullOr Object[] args)
+    {
+        String name = method.getName();
+        Object[] arguments = (args == null) ? new Object[0] : args;
+        
+        switch (name)
+        {
+            case "cancelTask":
+                @NullOr Task cancelling = tasks.get((Integer) arguments[0]);
+                if (cancelling != null) { cancelling.cancel(); }
+                return null;
+            case "cancelTasks":
+                cancelTasks((Plugin) arguments[0]);
+                return null;
+            case "isCurrentlyRunning":
+                @NullOr Task running = tasks.get((Integer) arguments[0]);
+                return running != null && running.running;
+            case "isQueued":
+                return tasks.containsKey((Integer) arguments[0]);
+            case "getPendingTasks":
+                List<BukkitTask> pending = new ArrayList<>();
+                for (Task task : tasks.values()) { pending.add(task.handle); }
+                return pending;
+            case "getActiveWorkers":
+                return new ArrayList<>();
+            case "callSyncMethod":
+                CompletableFuture<Object> future = new CompletableFuture<>();
+                Callable<Object> callable = (Callable<Object>) arguments[1];
+                schedule((Plugin) arguments[0], false, 0, -1, () -> {
+                    try { future.complete(callable.call()); }
+                    catch (Throwable throwable) { future.completeExceptionally(throwable); }
+                });
+                return future;
+            case "equals":
+            case "hashCode":
+            case "toString":
+                return TestServer.handleObject(proxy, method, args);
+            default:
+                break;
+        }
+        
+        if (!name.startsWith("run") && !name.startsWith("schedule"))
+        {
+            throw new UnsupportedOperationException(method.toGenericString());
+        }
+        
+        Plugin plugin = (Plugin) arguments[0];
+        boolean isAsync = name.contains("Async");
+        boolean repeating = name.contains("Timer") || name.contains("Repeating");
+        
+        long delay = (arguments.length > 2) ? (Long) arguments[2] : 0;
+        long period = (repeating && arguments.length > 3) ? (Long) arguments[3] : -1;
+        
+        Task task;
+        
+        if (arguments[1] instanceof Consumer)
+        {
+            Consumer<? super BukkitTask> consumer = (Consumer<? super BukkitTask>) arguments[1];
+            Task[] self = new Task[1];
+            task = self[0] = schedule(plugin, isAsync, delay, period, () -> consumer.accept(self[0].handle));
+        }
+        else { task = schedule(plugin, isAsync, delay, period, (Runnable) arguments[1]); }
+        
+        if (method.getReturnType() == int.class) { return task.id; }
+        if (method.getReturnType() == BukkitTask.class) { return task.handle; }
+        return null;
+    }
+    
+    private Task schedule(Plugin plugin, boolean isAsync, long delay, long period, Runnable body)
+    {
+        if (!plugin.isEnabled())
+        {
+            throw new IllegalStateException("Plugin attempted to register task while disabled: " + plugin.getName());
+        }
+        
+        // Matches Bukkit: a period of zero means every tick, while negative periods don't repeat
+        long normalizedPeriod = (period == 0) ? 1 : Math.max(-1, period);
+        
+        Task task = new Task(ids.incrementAndGet(), plugin, isAsync, normalizedPeriod, body);
+        task.due = currentTick + Math.max(1, delay);
+        
+        tasks.put(task.id, task);
+        synchronized (this) { queue.add(task); }
+        
+        return task;
+    }
+    
+    private final class Task
+    {
+        final int id;
+        final Plugin plugin;
+        final boolean async;
+        final long period;
+        final Runnable body;
+        final BukkitTask handle;
+        
+        // Guarded by TestScheduler.this while queued
+        long due;
+        
+        volatile boolean running = false;
+        volatile boolean cancelled = false;
+        
+        Task(int id, Plugin plugin, boolean async, long period, Runnable body)
+        {
+            this.id = id;
+            this.plugin = plugin;
+            this.async = async;
+            this.period = period;
+            this.body = body;
+            this.handle = TestServer.proxy(BukkitTask.class, this::handle);
+        }
+        
+        void run()
+        {
+            running = true;
+            
+            try { body.run(); }
+            catch (Throwable throwable)
+            {
+                plugin.getLogger().log(Level.WARNING, "Task #" + id + " for " + plugin.getName() + " generated an exception", throwable);
+            }
+            finally
+            {
+                running = false;
+                if (period < 0) { tasks.remove(id); }
+            }
+        }
+        
+        void cancel()
+        {
+            cancelled = true;
+            tasks.remove(id);
+        }
+        
+        private @NullOr Object handle(Object proxy, Method method, @NullOr Object[] args)
+        {
+            switch (method.getName())
+            {
+                case "getTaskId": return id;
+                case "getOwner": return plugin;
+                case "isSync": return !async;
+                case "isCancelled": return cancelled;
+                case "cancel": cancel(); return null;
+                default: return TestServer.handleObject(proxy, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.Warning;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory server for exercising event listeners without Minecraft.
+ *
+ * <p>Events are handled by Bukkit's own {@link SimplePluginManager} and handler lists,
+ * so priorities, cancellation, handler list baking, and thread checks behave exactly as
+ * they do on a real server. Only the {@link Server}, {@link Plugin}, and {@link Player}
+ * methods needed for events are implemented; everything else throws
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * <p>Time only passes when the server is {@link #tick() ticked}, which runs scheduled tasks
+ * that came due, so tick-based features (like coalescing and expiry) are deterministic. The
+ * primary thread is the thread that created the server until another thread
+ * {@link #claimPrimaryThread() claims} it.</p>
+ *
+ * <p>Bukkit's server and handler lists are global, so there's only one test server per JVM.
+ * {@link #reset() Reset} it between tests.</p>
+ */
+public final class TestServer
+{
+    private static @NullOr TestServer instance;
+    
+    /**
+     * Gets the shared server instance, creating it and installing it
+     * as the {@link Bukkit} singleton if necessary.
+     *
+     * @return the server
+     */
+    public static synchronized TestServer get()
+    {
+        if (instance == null) { instance = new TestServer(); }
+        return instance;
+    }
+    
+    private final Map<String, TestPlugin> plugins = new ConcurrentHashMap<>();
+    private final List<Player> players = new CopyOnWriteArrayList<>();
+    
+    private final Logger logger;
+    private final Server server;
+    private final TestScheduler scheduler;
+    private final BukkitScheduler bukkitScheduler;
+    private final PluginManager pluginManager;
+    
+    private volatile Thread primaryThread;
+    
+    private TestServer()
+    {
+        this.logger = Logger.getLogger("EventfulTestServer");
+        this.server = proxy(Server.class, this::handleServer);
+        this.scheduler = new TestScheduler();
+        this.bukkitScheduler = proxy(BukkitScheduler.class, scheduler::handle);
+        this.pluginManager = new SimplePluginManager(server, new SimpleCommandMap(server));
+        this.primaryThread = Thread.currentThread();
+        
+        Bukkit.setServer(server);
+    }
+    
+    private @NullOr Object handleServer(Object proxy, Method method, @NullOr Object[] args)
+    {
+        switch (method.getName())
+        {
+            case "getName": return "EventfulTestServer";
+            case "getVersion": return "test";
+            case "getBukkitVersion": return "test";
+            case "getLogger": return logger;
+            case "getPluginManager": return pluginManager;
+            case "getScheduler": return bukkitScheduler;
+            case "getWarningState": return Warning.WarningState.DEFAULT;
+            case "isPrimaryThread": return Thread.currentThread() == primaryThread;
+            case "getOnlinePlayers": return List.copyOf(players);
+            default: return handleObject(proxy, method, args);
+        }
+    }
+    
+    static @NullOr Object handleObject(Object proxy, Method method, @NullOr Object[] args)
+    {
+        switch (method.getName())
+        {
+            case "equals": return args != null && proxy == args[0];
+            case "hashCode": return System.identityHashCode(proxy);
+            case "toString": return proxy.getClass().getInterfaces()[0].getSimpleName() + "@test";
+            default: throw new UnsupportedOperationException(method.toGenericString());
+        }
+    }
+    
+    static <T> T proxy(Class<T> type, InvocationHandler handler)
+    {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+    
+    /**
+     * Gets the stub server.
+     *
+     * @return the server
+     */
+    public Server server() { return server; }
+    
+    /**
+     * Gets the plugin manager.
+     *
+     * @return the plugin manager
+     */
+    public PluginManager pluginManager() { return pluginManager; }
+    
+    /**
+     * Gets the scheduler, which only runs tasks when the server is ticked.
+     *
+     * @return the scheduler
+     */
+    public BukkitScheduler scheduler() { return bukkitScheduler; }
+    
+    /**
+     * Gets the named plugin, creating and enabling it if it doesn't exist yet.
+     *
+     * @param name  the plugin name
+     *
+     * @return the plugin
+     */
+    public Plugin plugin(String name)
+    {
+        Objects.requireNonNull(name, "name");
+        return plugins.computeIfAbsent(name, TestPlugin::new).proxy;
+    }
+    
+    /**
+     * Gets event utilities for the named plugin, creating and enabling it if necessary.
+     *
+     * @param name  the plugin name
+     *
+     * @return event utilities
+     */
+    public Events events(String name)
+    {
+        Plugin plugin = plugin(name);
+        return () -> plugin;
+    }
+    
+    /**
+     * Enables the plugin then calls {@link PluginEnableEvent}.
+     * Enabling an already-enabled plugin does nothing.
+     *
+     * @param plugin    a plugin created by this server
+     */
+    public void enable(Plugin plugin)
+    {
+        TestPlugin test = test(plugin);
+        if (test.enabled) { return; }
+        
+        test.enabled = true;
+        pluginManager.callEvent(new PluginEnableEvent(plugin));
+    }
+    
+    /**
+     * Disables the plugin the same way Bukkit does: calls {@link PluginDisableEvent}, marks
+     * the plugin as disabled, cancels its tasks, then unregisters all of its listeners.
+     * Disabling an already-disabled plugin does nothing.
+     *
+     * @param plugin    a plugin created by this server
+     */
+    public void disable(Plugin plugin)
+    {
+        TestPlugin test = test(plugin);
+        if (!test.enabled) { return; }
+        
+        pluginManager.callEvent(new PluginDisableEvent(plugin));
+        test.enabled = false;
+        
+        scheduler.cancelTasks(plugin);
+        HandlerList.unregisterAll(plugin);
+    }
+    
+    private TestPlugin test(Plugin plugin)
+    {
+        Objects.requireNonNull(plugin, "plugin");
+        @NullOr TestPlugin test = plugins.get(plugin.getName());
+        
+        if (test == null || test.proxy != plugin)
+        {
+            throw new IllegalArgumentException("Plugin wasn't created by the test server: " + plugin.getName());
+        }
+        
+        return test;
+    }
+    
+    /**
+     * Creates a new online player with the provided name and a name-based UUID.
+     * Players only implement their name, display name, UUID, server, and online status.
+     *
+     * @param name  the player name
+     *
+     * @return the player
+     */
+    public Player player(String name)
+    {
+        Objects.requireNonNull(name, "name");
+        
+        UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        
+        Player player = proxy(Player.class, (proxy, method, args) -> {
+            switch (method.getName())
+            {
+                case "getName":
+                case "getDisplayName":
+                case "getPlayerListName":
+                    return name;
+                case "getUniqueId": return uuid;
+                case "getServer": return server;
+                case "isOnline": return players.contains(proxy);
+                case "toString": return "TestPlayer{name=" + name + "}";
+                default: return handleObject(proxy, method, args);
+            }
+        });
+        
+        players.add(player);
+        return player;
+    }
+    
+    /**
+     * Gets the players created since the server was last reset.
+     *
+     * @return the online players
+     */
+    public Collection<Player> players()
+    {
+        return List.copyOf(players);
+    }
+    
+    /**
+     * Makes the current thread the primary (main) thread, which is the
+     * only thread that may call synchronous events or tick the server.
+     */
+    public void claimPrimaryThread()
+    {
+        primaryThread = Thread.currentThread();
+    }
+    
+    /**
+     * Advances the server by one tick, running every synchronous task that came due on this
+     * thread and handing every asynchronous task that came due to a pool of daemon threads.
+     *
+     * @throws IllegalStateException if not called on the primary thread
+     */
+    public void tick()
+    {
+        if (Thread.currentThread() != primaryThread)
+        {
+            throw new IllegalStateException("The server may only be ticked on the primary thread");
+        }
+        
+        scheduler.tick();
+    }
+    
+    /**
+     * Advances the server by the provided number of ticks.
+     *
+     * @param ticks     number of ticks
+     *
+     * @see #tick()
+     */
+    public void tick(int ticks)
+    {
+        for (int i = 0; i < ticks; i++) { tick(); }
+    }
+    
+    /**
+     * Gets the number of ticks since the server was last reset.
+     *
+     * @return the current tick
+     */
+    public long currentTick()
+    {
+        return scheduler.currentTick();
+    }
+    
+    /**
+     * Disables and forgets every plugin, removes every player, cancels every
+     * task, and unregisters every listener from every handler list.
+     */
+    public void reset()
+    {
+        for (TestPlugin plugin : new ArrayList<>(plugins.values())) { disable(plugin.proxy); }
+        
+        plugins.clear();
+        players.clear();
+        scheduler.reset();
+        HandlerList.unregisterAll();
+    }
+    
+    private final class TestPlugin
+    {
+        final PluginDescriptionFile description;
+        final Logger logger;
+        final Plugin proxy;
+        
+        volatile boolean enabled = true;
+        volatile boolean naggable = true;
+        
+        TestPlugin(String name)
+        {
+            this.description = new PluginDescriptionFile(name, "1.0", TestServer.class.getName());
+            this.logger = Logger.getLogger("EventfulTestServer." + name);
+            this.proxy = TestServer.proxy(Plugin.class, this::handle);
+        }
+        
+        private @NullOr Object handle(Object proxy, Method method, @NullOr Object[] args)
+        {
+            switch (method.getName())
+            {
+                case "getName": return description.getName();
+                case "getDescription": return description;
+                case "getLogger": return logger;
+                case "getServer": return server;
+                case "isEnabled": return enabled;
+                case "isNaggable": return naggable;
+                case "setNaggable":
+                    naggable = (Boolean) Objects.requireNonNull(args)[0];
+                    return null;
+                case "toString": return description.getFullName();
+                default: return handleObject(proxy, method, args);
+            }
+        }
+    }
+}
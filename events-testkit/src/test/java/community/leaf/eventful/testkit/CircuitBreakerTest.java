@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.CircuitBreakerPolicy;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent.Reason;
+import community.leaf.eventful.bukkit.events.CircuitBreakerStateChangeEvent.State;
+import community.leaf.eventful.bukkit.events.UncaughtEventExceptionEvent;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CircuitBreakerTest
+{
+    private static final Duration COOLDOWN = Duration.ofMillis(50);
+    
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    private List<String> transitions;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+        transitions = new ArrayList<>();
+        
+        events.on(UncaughtEventExceptionEvent.class, event -> {});
+        events.on(CircuitBreakerStateChangeEvent.class, event ->
+            transitions.add(event.getPreviousState() + "->" + event.getState() + ":" + event.getReason())
+        );
+        
+        events.circuitBreakers().enable(
+            CircuitBreakerPolicy.defaults().withMaxFailures(3, Duration.ofSeconds(10)).withCooldown(COOLDOWN)
+        );
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        events.circuitBreakers().disable();
+        server.reset();
+    }
+    
+    private static void cooldown() throws InterruptedException
+    {
+        Thread.sleep(COOLDOWN.toMillis() * 2);
+    }
+    
+    @Test
+    public void suspendsFailingListenersThenRetriesAfterCooldown() throws InterruptedException
+    {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AtomicInteger invoked = new AtomicInteger();
+        
+        events.on(PlayerActionEvent.class, event -> {
+            invoked.incrementAndGet();
+            if (failing.get()) { throw new IllegalStateException("Broken"); }
+        });
+        
+        for (int i = 0; i < 10; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        assertEquals(3, invoked.get());
+        assertEquals(List.of(State.CLOSED + "->" + State.OPEN + ":" + Reason.FAILURES), transitions);
+        
+        cooldown();
+        failing.set(false);
+        events.call(new PlayerActionEvent(alice, 0));
+        events.call(new PlayerActionEvent(alice, 1));
+        
+        assertEquals(5, invoked.get());
+        assertEquals(
+            List.of(
+                State.CLOSED + "->" + State.OPEN + ":" + Reason.FAILURES,
+                State.OPEN + "->" + State.HALF_OPEN + ":" + Reason.COOLDOWN_ELAPSED,
+                State.HALF_OPEN + "->" + State.CLOSED + ":" + Reason.TRIAL_SUCCEEDED
+            ),
+            transitions
+        );
+    }
+    
+    @Test
+    public void failedTrialsReopenTheBreaker() throws InterruptedException
+    {
+        AtomicInteger invoked = new AtomicInteger();
+        events.on(PlayerActionEvent.class, event -> {
+            invoked.incrementAndGet();
+            throw new IllegalStateException("Broken");
+        });
+        
+        for (int i = 0; i < 3; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        cooldown();
+        events.call(new PlayerActionEvent(alice, 0));
+        events.call(new PlayerActionEvent(alice, 1));
+        
+        assertEquals(4, invoked.get());
+        assertEquals(State.HALF_OPEN + "->" + State.OPEN + ":" + Reason.TRIAL_FAILED, transitions.get(transitions.size() - 1));
+    }
+    
+    @Test
+    public void siblingEventsDontConsumeTheTrial() throws InterruptedException
+    {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        events.on(PlayerJumpEvent.class, event -> { if (failing.get()) { throw new IllegalStateException("Broken"); } });
+        
+        for (int i = 0; i < 3; i++) { events.call(new PlayerJumpEvent(alice, i)); }
+        
+        cooldown();
+        failing.set(false);
+        events.call(new PlayerActionEvent(alice, 0)); // Shares the handler list, but isn't a jump
+        events.call(new PlayerJumpEvent(alice, 0));
+        
+        assertEquals(State.HALF_OPEN + "->" + State.CLOSED + ":" + Reason.TRIAL_SUCCEEDED, transitions.get(transitions.size() - 1));
+    }
+}
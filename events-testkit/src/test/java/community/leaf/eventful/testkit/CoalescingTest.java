@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.CircuitBreakerPolicy;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.Subscription;
+import community.leaf.eventful.bukkit.events.SuppressedEventExceptionsEvent;
+import community.leaf.eventful.bukkit.events.UncaughtEventExceptionEvent;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoalescingTest
+{
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    private Player bob;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+        bob = server.player("Bob");
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        events.circuitBreakers().disable();
+        server.reset();
+    }
+    
+    @Test
+    public void deliversTheLatestEventPerKeyOncePerTick()
+    {
+        List<String> delivered = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class)
+            .coalesce(PlayerActionEvent::getPlayer)
+            .listener(event -> delivered.add(event.getPlayer().getName() + ":" + event.getValue()));
+        
+        for (int i = 1; i <= 3; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        for (int i = 1; i <= 2; i++) { events.call(new PlayerActionEvent(bob, i)); }
+        
+        assertTrue(delivered.isEmpty());
+        
+        server.tick();
+        assertEquals(List.of("Alice:3", "Bob:2"), delivered);
+        
+        server.tick();
+        assertEquals(2, delivered.size());
+    }
+    
+    @Test
+    public void skipsEventsCancelledBeforeDeliveryIfRejectingCancelled()
+    {
+        List<Integer> delivered = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class)
+            .rejectCancelled()
+            .coalesce(PlayerActionEvent::getPlayer)
+            .listener(event -> delivered.add(event.getValue()));
+        
+        events.call(new PlayerActionEvent(alice, 1));
+        events.call(new PlayerActionEvent(bob, 2)).setCancelled(true);
+        
+        server.tick();
+        assertEquals(List.of(1), delivered);
+    }
+    
+    @Test
+    public void suppressesRepeatedExceptionsFromDeliveries()
+    {
+        List<UncaughtEventExceptionEvent> reports = new ArrayList<>();
+        List<SuppressedEventExceptionsEvent> summaries = new ArrayList<>();
+        events.on(UncaughtEventExceptionEvent.class, reports::add);
+        events.on(SuppressedEventExceptionsEvent.class, summaries::add);
+        
+        events.on(PlayerActionEvent.class)
+            .coalesce(PlayerActionEvent::getPlayer)
+            .listener(event -> { throw new IllegalStateException("Broken"); });
+        
+        for (int i = 0; i < 10; i++)
+        {
+            events.call(new PlayerActionEvent(alice, i));
+            events.call(new PlayerActionEvent(bob, i));
+            server.tick();
+        }
+        
+        assertEquals(1, reports.size());
+        
+        server.tick(250);
+        
+        assertEquals(1, summaries.size());
+        assertEquals(19, summaries.get(0).getSuppressedCount());
+    }
+    
+    @Test
+    public void circuitBreakersProtectDeliveries()
+    {
+        events.on(UncaughtEventExceptionEvent.class, event -> {});
+        events.circuitBreakers().enable(CircuitBreakerPolicy.defaults().withMaxFailures(3, Duration.ofSeconds(10)));
+        
+        AtomicInteger invoked = new AtomicInteger();
+        
+        events.on(PlayerActionEvent.class)
+            .coalesce(PlayerActionEvent::getPlayer)
+            .listener(event -> {
+                invoked.incrementAndGet();
+                throw new IllegalStateException("Broken");
+            });
+        
+        for (int i = 0; i < 10; i++)
+        {
+            events.call(new PlayerActionEvent(alice, i));
+            server.tick();
+        }
+        
+        assertEquals(3, invoked.get());
+    }
+    
+    @Test
+    public void discardsPendingEventsOnceClosed()
+    {
+        List<Integer> delivered = new ArrayList<>();
+        
+        Subscription subscription = events.on(PlayerActionEvent.class)
+            .coalesce(PlayerActionEvent::getPlayer)
+            .listener(event -> delivered.add(event.getValue()));
+        
+        events.call(new PlayerActionEvent(alice, 1));
+        subscription.close();
+        server.tick();
+        
+        assertTrue(delivered.isEmpty());
+    }
+}
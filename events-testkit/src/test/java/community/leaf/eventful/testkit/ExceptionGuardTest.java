@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.events.SuppressedEventExceptionsEvent;
+import community.leaf.eventful.bukkit.events.UncaughtEventExceptionEvent;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExceptionGuardTest
+{
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    private List<UncaughtEventExceptionEvent> reports;
+    private List<SuppressedEventExceptionsEvent> summaries;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+        reports = new CopyOnWriteArrayList<>();
+        summaries = new CopyOnWriteArrayList<>();
+        events.on(UncaughtEventExceptionEvent.class, reports::add);
+        events.on(SuppressedEventExceptionsEvent.class, summaries::add);
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    @Test
+    public void reportsTheFirstExceptionThenAggregatesRepeats()
+    {
+        events.on(PlayerActionEvent.class, event -> { throw new IllegalStateException("Broken"); });
+        
+        PlayerActionEvent first = events.call(new PlayerActionEvent(alice, 0));
+        for (int i = 1; i < 20; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        assertEquals(1, reports.size());
+        assertSame(first, reports.get(0).getEvent());
+        assertInstanceOf(IllegalStateException.class, reports.get(0).getException());
+        assertTrue(summaries.isEmpty());
+        
+        server.tick(250);
+        
+        assertEquals(1, reports.size());
+        assertEquals(1, summaries.size());
+        
+        SuppressedEventExceptionsEvent summary = summaries.get(0);
+        assertEquals(19, summary.getSuppressedCount());
+        assertEquals(PlayerActionEvent.class, summary.getEventType());
+        assertInstanceOf(IllegalStateException.class, summary.getException());
+        assertFalse(summary.isAsynchronous());
+    }
+    
+    @Test
+    public void keyedListenersFailIndependently()
+    {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        Function<PlayerActionEvent, Player> byPlayer = PlayerActionEvent::getPlayer; // Shared, so both use the same index
+        
+        events.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> { throw new IllegalStateException("Broken"); });
+        events.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> handled.add(event.getValue()));
+        
+        for (int i = 0; i < 5; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        assertEquals(List.of(0, 1, 2, 3, 4), handled);
+        assertEquals(1, reports.size());
+    }
+}
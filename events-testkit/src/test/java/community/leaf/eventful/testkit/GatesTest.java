@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GatesTest
+{
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    private Player bob;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+        bob = server.player("Bob");
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    @Test
+    public void samplesEventsPerWindow()
+    {
+        AtomicInteger delivered = new AtomicInteger();
+        events.on(PlayerActionEvent.class).sample(1, 4).listener(event -> delivered.incrementAndGet());
+        
+        for (int i = 0; i < 20; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        assertEquals(5, delivered.get());
+    }
+    
+    @Test
+    public void throttlesEventsPerKeyEachTick()
+    {
+        List<String> delivered = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class)
+            .throttle(PlayerActionEvent::getPlayer, 2)
+            .listener(event -> delivered.add(event.getPlayer().getName()));
+        
+        server.tick();
+        
+        for (int i = 0; i < 5; i++)
+        {
+            events.call(new PlayerActionEvent(alice, i));
+            events.call(new PlayerActionEvent(bob, i));
+        }
+        
+        assertEquals(List.of("Alice", "Bob", "Alice", "Bob"), delivered);
+        
+        server.tick();
+        events.call(new PlayerActionEvent(alice, 0));
+        
+        assertEquals(5, delivered.size());
+    }
+    
+    @Test
+    public void sampledEventsDontCountTowardsTheThrottle()
+    {
+        AtomicInteger delivered = new AtomicInteger();
+        events.on(PlayerActionEvent.class).sample(1, 2).throttle(3).listener(event -> delivered.incrementAndGet());
+        
+        server.tick();
+        for (int i = 0; i < 6; i++) { events.call(new PlayerActionEvent(alice, i)); }
+        
+        assertEquals(3, delivered.get());
+    }
+    
+    @Test
+    public void siblingEventsDontPassThroughGates()
+    {
+        AtomicInteger delivered = new AtomicInteger();
+        events.on(PlayerJumpEvent.class).sample(1, 2).listener(event -> delivered.incrementAndGet());
+        
+        for (int i = 0; i < 4; i++)
+        {
+            events.call(new PlayerActionEvent(alice, i)); // Shares the handler list, but isn't a jump
+            events.call(new PlayerJumpEvent(alice, i));
+        }
+        
+        assertEquals(2, delivered.get());
+    }
+    
+    @Test
+    public void rejectsInvalidGates()
+    {
+        assertThrows(IllegalArgumentException.class, () -> events.on(PlayerActionEvent.class).sample(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> events.on(PlayerActionEvent.class).sample(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> events.on(PlayerActionEvent.class).throttle(0));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.ListenerTable;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Registers listeners with (and without) a {@link ListenerTable}, checking that tables
+ * are used when they're present and usable, and that listeners are otherwise scanned.
+ *
+ * <p>Tables are written by hand here, named as the annotation processor would name them,
+ * and record their own use.</p>
+ */
+public class ListenerTableTest
+{
+    private static final List<String> HANDLED = new ArrayList<>();
+    
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+        HANDLED.clear();
+    }
+    
+    private List<String> call()
+    {
+        events.call(new PlayerActionEvent(alice, 0));
+        return List.copyOf(HANDLED);
+    }
+    
+    @Test
+    public void readsTables()
+    {
+        events.register(new Tabled());
+        assertEquals(List.of("table", "onAction"), call());
+    }
+    
+    @Test
+    public void scansListenersWithoutTables()
+    {
+        events.register(new Untabled());
+        assertEquals(List.of("onAction"), call());
+    }
+    
+    @Test
+    public void scansListenersWithUnusableTables()
+    {
+        events.register(new UnusablyTabled());
+        assertEquals(List.of("onAction"), call());
+    }
+    
+    public static class Tabled implements Listener
+    {
+        @EventHandler
+        public void onAction(PlayerActionEvent event) { HANDLED.add("onAction"); }
+    }
+    
+    public static final class Tabled$$EventfulTable implements ListenerTable<Tabled>
+    {
+        @Override
+        public void describe(ListenerTable.Methods<Tabled> methods)
+        {
+            methods.method(
+                "community.leaf.eventful.testkit.ListenerTableTest.Tabled.onAction(community.leaf.eventful.testkit.PlayerActionEvent)",
+                PlayerActionEvent.class,
+                EventPriority.NORMAL,
+                false,
+                (listener, event) ->
+                {
+                    HANDLED.add("table");
+                    listener.onAction(event);
+                }
+            );
+        }
+    }
+    
+    public static class Untabled implements Listener
+    {
+        @EventHandler
+        public void onAction(PlayerActionEvent event) { HANDLED.add("onAction"); }
+    }
+    
+    public static class UnusablyTabled implements Listener
+    {
+        @EventHandler
+        public void onAction(PlayerActionEvent event) { HANDLED.add("onAction"); }
+    }
+    
+    // Has the right name but isn't actually a ListenerTable
+    public static final class UnusablyTabled$$EventfulTable {}
+}
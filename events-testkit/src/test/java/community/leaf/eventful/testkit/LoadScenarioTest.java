@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadScenarioTest
+{
+    private final TestServer server = TestServer.get();
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    @Test
+    public void callsWholeRatesForEveryPlayerEveryTick()
+    {
+        Events events = server.events("Test");
+        AtomicInteger called = new AtomicInteger();
+        events.on(PlayerActionEvent.class, event -> called.incrementAndGet());
+        
+        LoadReport report = LoadScenario.of(10)
+            .withEvent("action", 3, player -> new PlayerActionEvent(player, 0))
+            .withWarmupTicks(5)
+            .withTicks(20)
+            .run(server);
+        
+        assertEquals(10 * 3 * 25, called.get());
+        assertEquals(10, report.players());
+        assertEquals(20, report.ticks());
+        assertEquals(10 * 3 * 20, report.total().events());
+        assertEquals(1, report.events().size());
+        assertEquals("action", report.events().get(0).name());
+        assertEquals(10, server.players().size());
+    }
+    
+    @Test
+    public void fractionalRatesAreRepeatableBySeed()
+    {
+        LoadScenario scenario = LoadScenario.of(50)
+            .withEvent("action", 0.25, player -> new PlayerActionEvent(player, 0))
+            .withWarmupTicks(0)
+            .withTicks(40)
+            .withSeed(42);
+        
+        long first = scenario.run(server).total().events();
+        server.reset();
+        long second = scenario.run(server).total().events();
+        
+        assertEquals(first, second);
+        assertTrue(first > 50 * 40 * 0.15 && first < 50 * 40 * 0.35, "Unexpected number of events: " + first);
+    }
+    
+    @Test
+    public void callsAsynchronousEventsOnAnotherThread()
+    {
+        Events events = server.events("Test");
+        Set<Boolean> primary = ConcurrentHashMap.newKeySet();
+        events.on(PlayerActionEvent.class, event -> primary.add(Bukkit.isPrimaryThread()));
+        
+        LoadReport report = LoadScenario.of(5)
+            .withEvent("sync", 1, player -> new PlayerActionEvent(player, 0))
+            .withEvent("async", 1, player -> new PlayerActionEvent(player, 0, true))
+            .withWarmupTicks(0)
+            .withTicks(10)
+            .run(server);
+        
+        assertEquals(Set.of(true, false), primary);
+        assertEquals(50, report.events().get(0).events());
+        assertEquals(50, report.events().get(1).events());
+        assertFalse(report.total().p99() < report.total().p50());
+    }
+    
+    @Test
+    public void rejectsInvalidScenarios()
+    {
+        assertThrows(IllegalArgumentException.class, () -> LoadScenario.of(0));
+        assertThrows(IllegalArgumentException.class, () -> LoadScenario.of(1).withEvent("action", 0, player -> new PlayerActionEvent(player, 0)));
+        assertThrows(IllegalArgumentException.class, () -> LoadScenario.of(1).withTicks(0));
+        assertThrows(IllegalStateException.class, () -> LoadScenario.of(1).run(server));
+    }
+}
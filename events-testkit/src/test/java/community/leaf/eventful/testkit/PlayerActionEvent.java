@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * A cancellable event called by a player, which may be synchronous or asynchronous.
+ */
+public class PlayerActionEvent extends Event implements Cancellable
+{
+    private final Player player;
+    private final int value;
+    
+    public PlayerActionEvent(Player player, int value)
+    {
+        this(player, value, false);
+    }
+    
+    public PlayerActionEvent(Player player, int value, boolean async)
+    {
+        super(async);
+        this.player = player;
+        this.value = value;
+    }
+    
+    public Player getPlayer() { return player; }
+    
+    public int getValue() { return value; }
+    
+    // - - - - - - Cancellable Boilerplate - - - - - -
+    
+    private boolean cancelled = false;
+    
+    @Override
+    public boolean isCancelled() { return cancelled; }
+    
+    @Override
+    public void setCancelled(boolean cancelled) { this.cancelled = cancelled; }
+    
+    // - - - - - - HandlerList Boilerplate - - - - - -
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public static HandlerList getHandlerList() { return HANDLERS; }
+    
+    @Override
+    public HandlerList getHandlers() { return HANDLERS; }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A subtype of {@link PlayerActionEvent} sharing its handler list, so that
+ * Bukkit also delivers its sibling events to listeners registered for it.
+ */
+public class PlayerJumpEvent extends PlayerActionEvent
+{
+    public PlayerJumpEvent(Player player, int value)
+    {
+        super(player, value);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.Subscription;
+import community.leaf.eventful.bukkit.SubscriptionGroup;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SubscriptionTest
+{
+    private final TestServer server = TestServer.get();
+    
+    private Events events;
+    private Player alice;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        events = server.events("Test");
+        alice = server.player("Alice");
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    private void call(int times)
+    {
+        for (int i = 0; i < times; i++) { events.call(new PlayerActionEvent(alice, i)); }
+    }
+    
+    @Test
+    public void closingUnregistersOnlyThatListener()
+    {
+        AtomicInteger closed = new AtomicInteger();
+        AtomicInteger open = new AtomicInteger();
+        
+        Subscription closing = events.on(PlayerActionEvent.class, event -> closed.incrementAndGet());
+        events.on(PlayerActionEvent.class, event -> open.incrementAndGet());
+        
+        call(1);
+        closing.close();
+        closing.close(); // Closing again does nothing
+        call(1);
+        
+        assertFalse(closing.isActive());
+        assertEquals(1, closed.get());
+        assertEquals(2, open.get());
+        assertEquals(1, PlayerActionEvent.getHandlerList().getRegisteredListeners().length);
+    }
+    
+    @Test
+    public void groupsCloseTogether()
+    {
+        AtomicInteger handled = new AtomicInteger();
+        SubscriptionGroup group = new SubscriptionGroup();
+        
+        group.add(events.on(PlayerActionEvent.class, event -> handled.incrementAndGet()));
+        group.add(events.on(PlayerJumpEvent.class, event -> handled.incrementAndGet()));
+        
+        assertTrue(group.isActive());
+        group.close();
+        call(1);
+        events.call(new PlayerJumpEvent(alice, 0));
+        
+        assertFalse(group.isActive());
+        assertEquals(0, handled.get());
+    }
+    
+    @Test
+    public void onceClosesAfterTheFirstDeliveredEvent()
+    {
+        Player bob = server.player("Bob");
+        List<String> handled = new ArrayList<>();
+        
+        Subscription subscription = events.on(PlayerActionEvent.class)
+            .once()
+            .keyedBy(PlayerActionEvent::getPlayer, bob, event -> handled.add(event.getPlayer().getName() + ":" + event.getValue()));
+        
+        // Alice's event never reaches the listener, so it doesn't count
+        events.call(new PlayerActionEvent(alice, 0));
+        events.call(new PlayerActionEvent(bob, 1));
+        events.call(new PlayerActionEvent(bob, 2));
+        
+        assertEquals(List.of("Bob:1"), handled);
+        assertFalse(subscription.isActive());
+    }
+    
+    @Test
+    public void expiresAfterTicks()
+    {
+        AtomicInteger handled = new AtomicInteger();
+        Subscription subscription = events.on(PlayerActionEvent.class).expireAfterTicks(3).listener(event -> handled.incrementAndGet());
+        
+        server.tick(2);
+        call(1);
+        assertTrue(subscription.isActive());
+        
+        server.tick(2);
+        call(1);
+        assertFalse(subscription.isActive());
+        assertEquals(1, handled.get());
+    }
+    
+    @Test
+    public void closingKeyedListenersKeepsTheirSiblings()
+    {
+        Player bob = server.player("Bob");
+        Function<PlayerActionEvent, Player> byPlayer = PlayerActionEvent::getPlayer;
+        List<String> handled = new ArrayList<>();
+        
+        Subscription aliceOnly = events.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> handled.add("alice"));
+        events.on(PlayerActionEvent.class).keyedBy(byPlayer, bob, event -> handled.add("bob"));
+        
+        events.call(new PlayerActionEvent(alice, 0));
+        events.call(new PlayerActionEvent(bob, 0));
+        aliceOnly.close();
+        events.call(new PlayerActionEvent(alice, 0));
+        events.call(new PlayerActionEvent(bob, 0));
+        
+        assertEquals(List.of("alice", "bob", "bob"), handled);
+    }
+    
+    @Test
+    public void keyedListenersInBatchesOnlyListenOnceCommitted()
+    {
+        Function<PlayerActionEvent, Player> byPlayer = PlayerActionEvent::getPlayer;
+        List<Integer> handled = new ArrayList<>();
+        
+        events.batch(batch -> {
+            batch.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> handled.add(event.getValue()));
+            batch.call(new PlayerActionEvent(alice, 0));
+        });
+        
+        events.call(new PlayerActionEvent(alice, 1));
+        
+        assertEquals(List.of(1), handled);
+    }
+    
+    @Test
+    public void abortedBatchesLeaveNoKeyedListenersBehind()
+    {
+        Function<PlayerActionEvent, Player> byPlayer = PlayerActionEvent::getPlayer;
+        List<String> handled = new ArrayList<>();
+        
+        assertThrows(IllegalStateException.class, () -> events.batch(batch -> {
+            batch.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> handled.add("aborted"));
+            throw new IllegalStateException("Aborted");
+        }));
+        
+        // Shares the index the aborted batch would have used
+        events.on(PlayerActionEvent.class).keyedBy(byPlayer, alice, event -> handled.add("alice"));
+        events.call(new PlayerActionEvent(alice, 0));
+        
+        assertEquals(List.of("alice"), handled);
+        assertEquals(1, PlayerActionEvent.getHandlerList().getRegisteredListeners().length);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSchedulerTest
+{
+    private final TestServer server = TestServer.get();
+    
+    private Plugin plugin;
+    private BukkitScheduler scheduler;
+    
+    @BeforeEach
+    public void setup()
+    {
+        server.claimPrimaryThread();
+        plugin = server.plugin("Test");
+        scheduler = server.scheduler();
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    private List<Long> tick(int ticks, List<Long> ran)
+    {
+        server.tick(ticks);
+        return ran;
+    }
+    
+    @Test
+    public void onlyRunsTasksWhenTicked()
+    {
+        List<Long> ran = new ArrayList<>();
+        scheduler.runTask(plugin, () -> ran.add(server.currentTick()));
+        
+        assertTrue(ran.isEmpty());
+        assertEquals(List.of(1L), tick(1, ran));
+        assertEquals(List.of(1L), tick(5, ran));
+    }
+    
+    @Test
+    public void runsDelayedTasksOnTheFirstTickAfterTheyComeDue()
+    {
+        List<Long> ran = new ArrayList<>();
+        
+        scheduler.runTaskLater(plugin, () -> ran.add(server.currentTick()), 0);
+        scheduler.runTaskLater(plugin, () -> ran.add(server.currentTick()), 3);
+        
+        assertEquals(List.of(1L), tick(2, ran));
+        assertEquals(List.of(1L, 3L), tick(3, ran));
+    }
+    
+    @Test
+    public void repeatsTasksByPeriod()
+    {
+        List<Long> everyTick = new ArrayList<>();
+        List<Long> everyOtherTick = new ArrayList<>();
+        List<Long> once = new ArrayList<>();
+        
+        scheduler.runTaskTimer(plugin, () -> everyTick.add(server.currentTick()), 0, 0);
+        scheduler.runTaskTimer(plugin, () -> everyOtherTick.add(server.currentTick()), 1, 2);
+        scheduler.runTaskTimer(plugin, () -> once.add(server.currentTick()), 1, -1);
+        
+        server.tick(5);
+        
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), everyTick);
+        assertEquals(List.of(1L, 3L, 5L), everyOtherTick);
+        assertEquals(List.of(1L), once);
+    }
+    
+    @Test
+    public void cancelledTasksNeverRun()
+    {
+        List<Long> ran = new ArrayList<>();
+        
+        BukkitTask task = scheduler.runTaskTimer(plugin, () -> ran.add(server.currentTick()), 0, 1);
+        server.tick(2);
+        task.cancel();
+        server.tick(2);
+        
+        assertTrue(task.isCancelled());
+        assertFalse(scheduler.isQueued(task.getTaskId()));
+        assertEquals(List.of(1L, 2L), ran);
+    }
+    
+    @Test
+    public void runsAsynchronousTasksOffThePrimaryThread() throws Exception
+    {
+        Thread primary = Thread.currentThread();
+        CompletableFuture<Thread> ran = new CompletableFuture<>();
+        
+        scheduler.runTaskAsynchronously(plugin, () -> ran.complete(Thread.currentThread()));
+        
+        assertFalse(ran.isDone());
+        server.tick();
+        assertNotSame(primary, ran.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void onlyTicksOnThePrimaryThread()
+    {
+        CompletableFuture<Void> ticked = CompletableFuture.runAsync(server::tick);
+        assertThrows(Exception.class, ticked::join);
+        assertEquals(0, server.currentTick());
+    }
+    
+    @Test
+    public void rejectsTasksFromDisabledPlugins()
+    {
+        server.disable(plugin);
+        assertThrows(IllegalStateException.class, () -> scheduler.runTask(plugin, () -> {}));
+    }
+}
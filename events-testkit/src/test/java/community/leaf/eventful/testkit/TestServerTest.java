@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2021-2024, RezzedUp <http://github.com/LeafCommunity/Eventful>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.eventful.testkit;
+
+import community.leaf.eventful.bukkit.CancellationPolicy;
+import community.leaf.eventful.bukkit.Events;
+import community.leaf.eventful.bukkit.ListenerOrder;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestServerTest
+{
+    private final TestServer server = TestServer.get();
+    
+    @BeforeEach
+    public void claim()
+    {
+        server.claimPrimaryThread();
+    }
+    
+    @AfterEach
+    public void reset()
+    {
+        server.reset();
+    }
+    
+    @Test
+    public void installsItselfAsTheBukkitServer()
+    {
+        assertSame(server.server(), Bukkit.getServer());
+        assertSame(server.pluginManager(), Bukkit.getPluginManager());
+        assertSame(server.scheduler(), Bukkit.getScheduler());
+    }
+    
+    @Test
+    public void callsListenersInPriorityOrder()
+    {
+        Events events = server.events("Test");
+        List<ListenerOrder> called = new ArrayList<>();
+        
+        for (ListenerOrder order : new ListenerOrder[] {
+            ListenerOrder.MONITOR, ListenerOrder.LATE, ListenerOrder.FIRST,
+            ListenerOrder.NORMAL, ListenerOrder.LAST, ListenerOrder.EARLY
+        }) {
+            events.on(PlayerActionEvent.class, order, event -> called.add(order));
+        }
+        
+        events.call(new PlayerActionEvent(server.player("Alice"), 0));
+        
+        assertEquals(
+            List.of(ListenerOrder.FIRST, ListenerOrder.EARLY, ListenerOrder.NORMAL, ListenerOrder.LATE, ListenerOrder.LAST, ListenerOrder.MONITOR),
+            called
+        );
+    }
+    
+    @Test
+    public void skipsCancelledEventsForListenersThatRejectThem()
+    {
+        Events events = server.events("Test");
+        List<String> called = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class, ListenerOrder.EARLY, event -> event.setCancelled(true));
+        events.on(PlayerActionEvent.class, ListenerOrder.NORMAL, CancellationPolicy.REJECT, event -> called.add("rejecting"));
+        events.on(PlayerActionEvent.class, ListenerOrder.NORMAL, CancellationPolicy.ACCEPT, event -> called.add("accepting"));
+        
+        PlayerActionEvent event = events.call(new PlayerActionEvent(server.player("Alice"), 0));
+        
+        assertTrue(event.isCancelled());
+        assertEquals(List.of("accepting"), called);
+    }
+    
+    @Test
+    public void rebakesHandlerListsAfterRegistering()
+    {
+        Events events = server.events("Test");
+        Player player = server.player("Alice");
+        List<Integer> called = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class, event -> called.add(1));
+        events.call(new PlayerActionEvent(player, 0));
+        
+        // Registered after the handler list was baked by the first call
+        events.on(PlayerActionEvent.class, event -> called.add(2));
+        events.call(new PlayerActionEvent(player, 0));
+        
+        assertEquals(List.of(1, 1, 2), called);
+        assertEquals(2, PlayerActionEvent.getHandlerList().getRegisteredListeners().length);
+    }
+    
+    @Test
+    public void disablingUnregistersListenersAndCancelsTasks()
+    {
+        Plugin plugin = server.plugin("Test");
+        Events events = server.events("Test");
+        List<String> called = new ArrayList<>();
+        
+        events.on(PlayerActionEvent.class, event -> called.add("listener"));
+        server.scheduler().runTaskLater(plugin, () -> called.add("task"), 1);
+        
+        server.disable(plugin);
+        
+        assertFalse(plugin.isEnabled());
+        assertEquals(0, PlayerActionEvent.getHandlerList().getRegisteredListeners().length);
+        
+        server.tick();
+        events.call(new PlayerActionEvent(server.player("Alice"), 0));
+        
+        assertTrue(called.isEmpty());
+    }
+    
+    @Test
+    public void rejectsSynchronousEventsOffThePrimaryThread()
+    {
+        Events events = server.events("Test");
+        Player player = server.player("Alice");
+        
+        assertTrue(Bukkit.isPrimaryThread());
+        
+        CompletableFuture<PlayerActionEvent> called = CompletableFuture.supplyAsync(() -> {
+            assertFalse(Bukkit.isPrimaryThread());
+            return events.call(new PlayerActionEvent(player, 0));
+        });
+        
+        ExecutionException thrown = assertThrows(ExecutionException.class, called::get);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    }
+    
+    @Test
+    public void resetForgetsPlayersAndPlugins()
+    {
+        Plugin plugin = server.plugin("Test");
+        Player player = server.player("Alice");
+        
+        assertTrue(player.isOnline());
+        assertEquals(List.of(player), List.copyOf(server.players()));
+        
+        server.reset();
+        
+        assertFalse(player.isOnline());
+        assertTrue(server.players().isEmpty());
+        assertFalse(plugin.isEnabled());
+        assertNotSame(plugin, server.plugin("Test"));
+    }
+}